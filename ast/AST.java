@@ -1,6 +1,8 @@
 package ast;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
 import visitor.*;
 
 /**
@@ -18,18 +20,70 @@ import visitor.*;
  */
 public abstract class AST {
 
-  protected ArrayList<AST> kids;
+  protected List<AST> kids;
   protected int nodeNum;
   protected AST decoration;
   // label for generated code of tree
   protected String label = "";
 
-  public static int NodeCount = 0;
+  // numbers the nodes; trees may be built on several threads at once
+  private static final AtomicInteger nodeNumbers = new AtomicInteger();
+  // if set, numbers the nodes built on this thread instead
+  private static final ThreadLocal<int[]> localNumbers = new ThreadLocal<int[]>();
 
   public AST() {
     kids = new ArrayList<AST>();
-    NodeCount++;
-    nodeNum = NodeCount;
+    int[] local = localNumbers.get();
+    nodeNum = local == null ? nodeNumbers.incrementAndGet() : ++local[0];
+  }
+
+  /**
+   * @return the number of node numbers handed out so far
+   */
+  public static int getNodeCount() {
+    return nodeNumbers.get();
+  }
+
+  /**
+   * number the nodes built on this thread from 1, in the order they are
+   * built, until endLocalNumbers(); the numbers are only unique among
+   * them, so they must be replaced by renumber()
+   */
+  public static void startLocalNumbers() {
+    localNumbers.set(new int[1]);
+  }
+
+  /**
+   * @return the number of nodes built on this thread since
+   *         startLocalNumbers(), after which nodes are numbered as usual
+   */
+  public static int endLocalNumbers() {
+    int count = localNumbers.get()[0];
+    localNumbers.set(null);
+    return count;
+  }
+
+  /**
+   * @return the first of count node numbers no other node has
+   */
+  public static int reserveNodeNumbers(int count) {
+    return nodeNumbers.getAndAdd(count) + 1;
+  }
+
+  /**
+   * give each node of t the number map makes of its number
+   */
+  public static void renumber(AST t, IntUnaryOperator map) {
+    ArrayDeque<AST> pending = new ArrayDeque<AST>();
+
+    pending.push(t);
+    while (!pending.isEmpty()) {
+      AST node = pending.pop();
+      node.nodeNum = map.applyAsInt(node.nodeNum);
+      for (AST kid : node.kids) {
+        pending.push(kid);
+      }
+    }
   }
 
   public void setDecoration(AST t) {
@@ -64,7 +118,7 @@ public abstract class AST {
     return kids.size();
   }
 
-  public ArrayList<AST> getKids() {
+  public List<AST> getKids() {
     return kids;
   }
 
@@ -0,0 +1,511 @@
+package ast;
+
+import java.util.*;
+import lexer.Symbol;
+import lexer.Token;
+
+/**
+ * The FlatAST class is a compact, read only copy of an AST: the nodes are
+ * numbered in preorder and kept in an arena of primitive arrays (node
+ * kind, first kid, next sibling, symbol and decoration), so a node costs
+ * 17 bytes rather than an object, its kid list and its label; a walk of
+ * the whole tree is a scan of the arrays in order<br>
+ * Labels and frame offsets, which only a few nodes have, are kept on the
+ * side; symbols are numbered, so a symbol index stands in for the token
+ * of a leaf<br>
+ * For an ASTVisitor, view(n) and root() hand out nodes of the usual AST
+ * classes whose kids and decorations are made from the arena as they are
+ * asked for; each node has one view, kept once it is made, so only the
+ * part of the tree a visitor reaches is made of objects. Views are read
+ * only: their kid lists cannot be changed, and decorations or labels set
+ * on a view are not written back to the arena
+ */
+public class FlatAST {
+
+  /**
+   * the kinds of node, one per AST class
+   */
+  public enum Kind {
+    PROGRAM, BLOCK, FUNCTION_DECL, FORMALS, DECL, ACTUAL_ARGS, CALL, IF, WHILE, FOR_ALL,
+    RANGE_EXP, RETURN, ASSIGN, REL_OP, ADD_OP, MULT_OP, ID, INT, SCIENTIFIC, STRING,
+    INT_TYPE, BOOL_TYPE, STRING_TYPE, SCIENTIFIC_TYPE
+  }
+
+  private static final Kind[] kindValues = Kind.values();
+  private static final HashMap<Class<?>, Kind> kindOfClass = new HashMap<Class<?>, Kind>();
+  static {
+    kindOfClass.put(ProgramTree.class, Kind.PROGRAM);
+    kindOfClass.put(BlockTree.class, Kind.BLOCK);
+    kindOfClass.put(FunctionDeclTree.class, Kind.FUNCTION_DECL);
+    kindOfClass.put(FormalsTree.class, Kind.FORMALS);
+    kindOfClass.put(DeclTree.class, Kind.DECL);
+    kindOfClass.put(ActualArgsTree.class, Kind.ACTUAL_ARGS);
+    kindOfClass.put(CallTree.class, Kind.CALL);
+    kindOfClass.put(IfTree.class, Kind.IF);
+    kindOfClass.put(WhileTree.class, Kind.WHILE);
+    kindOfClass.put(ForAllTree.class, Kind.FOR_ALL);
+    kindOfClass.put(RangeExpTree.class, Kind.RANGE_EXP);
+    kindOfClass.put(ReturnTree.class, Kind.RETURN);
+    kindOfClass.put(AssignTree.class, Kind.ASSIGN);
+    kindOfClass.put(RelOpTree.class, Kind.REL_OP);
+    kindOfClass.put(AddOpTree.class, Kind.ADD_OP);
+    kindOfClass.put(MultOpTree.class, Kind.MULT_OP);
+    kindOfClass.put(IdTree.class, Kind.ID);
+    kindOfClass.put(IntTree.class, Kind.INT);
+    kindOfClass.put(ScientificTree.class, Kind.SCIENTIFIC);
+    kindOfClass.put(StringTree.class, Kind.STRING);
+    kindOfClass.put(IntTypeTree.class, Kind.INT_TYPE);
+    kindOfClass.put(BoolTypeTree.class, Kind.BOOL_TYPE);
+    kindOfClass.put(StringTypeTree.class, Kind.STRING_TYPE);
+    kindOfClass.put(ScientificTypeTree.class, Kind.SCIENTIFIC_TYPE);
+  }
+
+  // the arena; -1 stands for no kid, sibling, symbol or decoration
+  private final byte[] kinds;
+  private final int[] firstKids;
+  private final int[] nextSiblings;
+  private final int[] symbolIndices;
+  private final int[] decorations;
+  private final int size;
+
+  // the symbols, numbered, and the values of the literals among them
+  private final Symbol[] symbols;
+  private final long[] values;
+  private final HashMap<Integer, String> labels;
+  private final HashMap<Integer, Integer> frameOffsets;
+
+  // the view of each node, made the first time it is asked for, so a node
+  // is the same object wherever it is reached from, as visitors that look
+  // nodes up by identity expect; null until a view is asked for
+  private AST[] views;
+
+  private FlatAST(Builder b) {
+    size = b.size;
+    kinds = Arrays.copyOf(b.kinds, size);
+    firstKids = Arrays.copyOf(b.firstKids, size);
+    nextSiblings = Arrays.copyOf(b.nextSiblings, size);
+    symbolIndices = Arrays.copyOf(b.symbolIndices, size);
+    decorations = Arrays.copyOf(b.decorations, size);
+    symbols = b.symbols.toArray(new Symbol[b.symbols.size()]);
+    values = Arrays.copyOf(b.values, symbols.length);
+    labels = b.labels;
+    frameOffsets = b.frameOffsets;
+  }
+
+  /**
+   * flatten the tree t; the bodies of functions not yet parsed (see
+   * FunctionDeclTree.setLazyBody) are parsed one at a time and flattened
+   * without being kept, so the whole tree need never be made of objects
+   * at once<br>
+   * Decorations outside of t are flattened after it
+   *
+   * @param t is the tree to flatten; it becomes node 0
+   * @return the flat copy of t
+   */
+  public static FlatAST of(AST t) {
+    return new FlatAST(new Builder().build(t));
+  }
+
+  /**
+   * @return the number of nodes
+   */
+  public int size() {
+    return size;
+  }
+
+  public Kind kind(int node) {
+    return kindValues[kinds[node]];
+  }
+
+  /**
+   * @return the first kid of node, or -1 if it has none
+   */
+  public int firstKid(int node) {
+    return firstKids[node];
+  }
+
+  /**
+   * @return the kid after node in its parent's kids, or -1 if it is the last
+   */
+  public int nextSibling(int node) {
+    return nextSiblings[node];
+  }
+
+  public int kidCount(int node) {
+    int count = 0;
+
+    for (int kid = firstKids[node]; kid >= 0; kid = nextSiblings[kid]) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * @return the symbol of an operator, identifier or literal node, or null
+   */
+  public Symbol symbol(int node) {
+    return symbolIndices[node] >= 0 ? symbols[symbolIndices[node]] : null;
+  }
+
+  public long intValue(int node) {
+    return values[symbolIndices[node]];
+  }
+
+  public double scientificValue(int node) {
+    return Double.longBitsToDouble(values[symbolIndices[node]]);
+  }
+
+  /**
+   * @return the node node is decorated with, or -1 if it has no decoration
+   */
+  public int decoration(int node) {
+    return decorations[node];
+  }
+
+  public String label(int node) {
+    return labels.getOrDefault(node, "");
+  }
+
+  /**
+   * @return the frame offset of an identifier node, or -1 if it has none
+   */
+  public int frameOffset(int node) {
+    return frameOffsets.getOrDefault(node, -1);
+  }
+
+  /**
+   * @return a view of node 0, the tree that was flattened
+   */
+  public AST root() {
+    return view(0);
+  }
+
+  /**
+   * @return a view of node: a node of the usual AST class whose node
+   *         number is node + 1 and whose kids are views of its kids
+   */
+  public AST view(int node) {
+    if (views == null) {
+      views = new AST[size];
+    }
+    AST t = views[node];
+    if (t != null) {
+      return t;
+    }
+
+    t = newView(node);
+    views[node] = t;
+    if (decorations[node] >= 0) {
+      t.decoration = view(decorations[node]);
+    }
+    return t;
+  }
+
+  private AST newView(int node) {
+    AST t;
+
+    // a view has the number of its node, so it leaves the count of the
+    // nodes built alone
+    AST.startLocalNumbers();
+    try {
+      t = newNode(node);
+    } finally {
+      AST.endLocalNumbers();
+    }
+    t.kids = new Kids(node);
+    t.nodeNum = node + 1;
+    t.label = label(node);
+    return t;
+  }
+
+  private AST newNode(int node) {
+    AST t;
+
+    switch (kind(node)) {
+      case PROGRAM: t = new ProgramTree(); break;
+      case BLOCK: t = new BlockTree(); break;
+      case FUNCTION_DECL: t = new FunctionDeclTree(); break;
+      case FORMALS: t = new FormalsTree(); break;
+      case DECL: t = new DeclTree(); break;
+      case ACTUAL_ARGS: t = new ActualArgsTree(); break;
+      case CALL: t = new CallTree(); break;
+      case IF: t = new IfTree(); break;
+      case WHILE: t = new WhileTree(); break;
+      case FOR_ALL: t = new ForAllTree(); break;
+      case RANGE_EXP: t = new RangeExpTree(); break;
+      case RETURN: t = new ReturnTree(); break;
+      case ASSIGN: t = new AssignTree(); break;
+      case REL_OP: t = new RelOpTree(token(node)); break;
+      case ADD_OP: t = new AddOpTree(token(node)); break;
+      case MULT_OP: t = new MultOpTree(token(node)); break;
+      case ID:
+        t = new IdTree(token(node));
+        ((IdTree) t).setFrameOffset(frameOffset(node));
+        break;
+      case INT: t = new IntTree(new Token(0, 0, symbol(node), 0, intValue(node))); break;
+      case SCIENTIFIC: t = new ScientificTree(new Token(0, 0, symbol(node), 0, scientificValue(node))); break;
+      case STRING: t = new StringTree(token(node)); break;
+      case INT_TYPE: t = new IntTypeTree(); break;
+      case BOOL_TYPE: t = new BoolTypeTree(); break;
+      case STRING_TYPE: t = new StringTypeTree(); break;
+      default: t = new ScientificTypeTree(); break;
+    }
+    return t;
+  }
+
+  private Token token(int node) {
+    return new Token(0, 0, symbol(node), 0);
+  }
+
+  /**
+   * the kids of a view: the nodes of the kids are listed from the arena
+   * the first time they are asked for by index, so size and get take
+   * constant time, as visitors that loop over getKid(i) need; as an
+   * AbstractList with only get and size it cannot be changed
+   */
+  private class Kids extends AbstractList<AST> {
+    private final int node;
+    private int[] kidNodes;
+
+    Kids(int node) {
+      this.node = node;
+    }
+
+    private int[] kidNodes() {
+      if (kidNodes == null) {
+        int[] nodes = new int[kidCount(node)];
+        int i = 0;
+
+        for (int kid = firstKids[node]; kid >= 0; kid = nextSiblings[kid]) {
+          nodes[i++] = kid;
+        }
+        kidNodes = nodes;
+      }
+      return kidNodes;
+    }
+
+    @Override
+    public int size() {
+      return kidNodes().length;
+    }
+
+    @Override
+    public AST get(int i) {
+      return view(kidNodes()[i]);
+    }
+
+    // a walk of the kids follows the sibling links rather than calling get
+    @Override
+    public Iterator<AST> iterator() {
+      return new Iterator<AST>() {
+        private int kid = firstKids[node];
+
+        public boolean hasNext() {
+          return kid >= 0;
+        }
+
+        public AST next() {
+          if (kid < 0) {
+            throw new NoSuchElementException();
+          }
+          AST t = view(kid);
+          kid = nextSiblings[kid];
+          return t;
+        }
+      };
+    }
+  }
+
+  /**
+   * flattens a tree into growing arrays, walking it with an explicit stack
+   * so a deeply nested tree is no problem
+   */
+  private static class Builder {
+    byte[] kinds = new byte[1024];
+    int[] firstKids = new int[1024];
+    int[] nextSiblings = new int[1024];
+    int[] symbolIndices = new int[1024];
+    int[] decorations = new int[1024];
+    // the last kid added to each node so far; only needed while building
+    int[] lastKids = new int[1024];
+    int size = 0;
+
+    ArrayList<Symbol> symbols = new ArrayList<Symbol>();
+    long[] values = new long[64];
+    IdentityHashMap<Symbol, Integer> symbolNumbers = new IdentityHashMap<Symbol, Integer>();
+    HashMap<Integer, String> labels = new HashMap<Integer, String>();
+    HashMap<Integer, Integer> frameOffsets = new HashMap<Integer, Integer>();
+
+    // the nodes that are decorations, found before flattening, and the
+    // numbers they get (-1 until then); the nodes decorated with one not
+    // yet numbered wait in pending
+    IdentityHashMap<AST, Integer> targets = new IdentityHashMap<AST, Integer>();
+    HashMap<Integer, AST> pending = new HashMap<Integer, AST>();
+
+    // the stack of nodes to flatten and the numbers of their parents
+    AST[] work = new AST[64];
+    int[] parents = new int[64];
+    int top = 0;
+
+    Builder build(AST t) {
+      findDecorations(t);
+      flatten(t);
+
+      // flatten the decorations that lie outside of t
+      while (!pending.isEmpty()) {
+        AST outside = null;
+        for (AST target : pending.values()) {
+          if (targets.get(target) < 0) {
+            outside = target;
+            break;
+          }
+        }
+        if (outside == null) {
+          break;
+        }
+        findDecorations(outside);
+        flatten(outside);
+      }
+
+      for (Map.Entry<Integer, AST> decoration : pending.entrySet()) {
+        decorations[decoration.getKey()] = targets.get(decoration.getValue());
+      }
+      return this;
+    }
+
+    /**
+     * note the decorations found in t, without parsing pending bodies,
+     * which are not decorated
+     */
+    private void findDecorations(AST t) {
+      push(t, -1);
+      while (top > 0) {
+        AST node = work[--top];
+        work[top] = null;
+
+        if (node.decoration != null && !targets.containsKey(node.decoration)) {
+          targets.put(node.decoration, -1);
+        }
+        for (AST kid : node.kids) {
+          push(kid, -1);
+        }
+      }
+    }
+
+    private void flatten(AST t) {
+      push(t, -1);
+      while (top > 0) {
+        AST node = work[--top];
+        int parent = parents[top];
+        work[top] = null;
+
+        int n = add(node);
+        if (parent >= 0) {
+          if (lastKids[parent] < 0) {
+            firstKids[parent] = n;
+          } else {
+            nextSiblings[lastKids[parent]] = n;
+          }
+          lastKids[parent] = n;
+        }
+
+        // the kids go on the stack last first, so they are numbered in order
+        if (node instanceof FunctionDeclTree) {
+          AST body = ((FunctionDeclTree) node).parseDetachedBody();
+          if (body != null) {
+            push(body, n);
+          }
+        }
+        for (int i = node.kids.size() - 1; i >= 0; i--) {
+          push(node.kids.get(i), n);
+        }
+      }
+    }
+
+    private int add(AST t) {
+      Kind kind = kindOfClass.get(t.getClass());
+      if (kind == null) {
+        throw new IllegalArgumentException("no flat form for " + t.getClass().getSimpleName());
+      }
+
+      if (size == kinds.length) {
+        int capacity = size * 2;
+        kinds = Arrays.copyOf(kinds, capacity);
+        firstKids = Arrays.copyOf(firstKids, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        symbolIndices = Arrays.copyOf(symbolIndices, capacity);
+        decorations = Arrays.copyOf(decorations, capacity);
+        lastKids = Arrays.copyOf(lastKids, capacity);
+      }
+
+      int n = size++;
+      kinds[n] = (byte) kind.ordinal();
+      firstKids[n] = nextSiblings[n] = lastKids[n] = -1;
+      symbolIndices[n] = -1;
+      decorations[n] = -1;
+
+      switch (kind) {
+        case REL_OP: symbolIndices[n] = number(((RelOpTree) t).getSymbol(), 0); break;
+        case ADD_OP: symbolIndices[n] = number(((AddOpTree) t).getSymbol(), 0); break;
+        case MULT_OP: symbolIndices[n] = number(((MultOpTree) t).getSymbol(), 0); break;
+        case STRING: symbolIndices[n] = number(((StringTree) t).getSymbol(), 0); break;
+        case INT: symbolIndices[n] = number(((IntTree) t).getSymbol(), ((IntTree) t).getValue()); break;
+        case SCIENTIFIC:
+          symbolIndices[n] = number(((ScientificTree) t).getSymbol(),
+              Double.doubleToRawLongBits(((ScientificTree) t).getValue()));
+          break;
+        case ID:
+          symbolIndices[n] = number(((IdTree) t).getSymbol(), 0);
+          if (((IdTree) t).getFrameOffset() >= 0) {
+            frameOffsets.put(n, ((IdTree) t).getFrameOffset());
+          }
+          break;
+        default:
+          break;
+      }
+
+      if (t.label.length() > 0) {
+        labels.put(n, t.label);
+      }
+      if (targets.containsKey(t)) {
+        targets.put(t, n);
+      }
+      if (t.decoration != null) {
+        int target = targets.get(t.decoration);
+        if (target >= 0) {
+          decorations[n] = target;
+        } else {
+          pending.put(n, t.decoration);
+        }
+      }
+      return n;
+    }
+
+    /**
+     * @return the number of symbol s, numbering it if it is new
+     */
+    private int number(Symbol s, long value) {
+      Integer number = symbolNumbers.get(s);
+
+      if (number == null) {
+        number = symbols.size();
+        symbols.add(s);
+        symbolNumbers.put(s, number);
+        if (number == values.length) {
+          values = Arrays.copyOf(values, number * 2);
+        }
+        values[number] = value;
+      }
+      return number;
+    }
+
+    private void push(AST t, int parent) {
+      if (top == work.length) {
+        work = Arrays.copyOf(work, top * 2);
+        parents = Arrays.copyOf(parents, top * 2);
+      }
+      work[top] = t;
+      parents[top++] = parent;
+    }
+  }
+}
@@ -1,11 +1,70 @@
 package ast;
 
+import java.util.List;
+import java.util.function.Supplier;
 import visitor.*;
 
 public class FunctionDeclTree extends AST {
+  // parses the body (the last kid) when it is first asked for; null once
+  // the body is a kid
+  private Supplier<AST> body;
 
   public FunctionDeclTree() {}
 
+  /**
+   * defer the body of the function: it is parsed, and added as the last
+   * kid, when a kid list that includes it is first asked for, so a reader
+   * of just the header (type, name and formals) never pays for it
+   *
+   * @param body parses the body
+   */
+  public void setLazyBody(Supplier<AST> body) {
+    this.body = body;
+  }
+
+  /**
+   * @return true if the body has not been parsed yet
+   */
+  public boolean isBodyPending() {
+    return body != null;
+  }
+
+  /**
+   * @return the pending body, parsed afresh and not kept as a kid, or null
+   *         if the body is not pending; FlatAST flattens a lazy tree one
+   *         body at a time this way
+   */
+  AST parseDetachedBody() {
+    return body != null ? body.get() : null;
+  }
+
+  private void parseBody() {
+    if (body != null) {
+      AST block = body.get();
+      body = null;
+      addKid(block);
+    }
+  }
+
+  @Override
+  public AST getKid(int i) {
+    if (i == kids.size() + 1) {
+      parseBody();
+    }
+    return super.getKid(i);
+  }
+
+  @Override
+  public int kidCount() {
+    return kids.size() + (body != null ? 1 : 0);
+  }
+
+  @Override
+  public List<AST> getKids() {
+    parseBody();
+    return super.getKids();
+  }
+
   public Object accept(ASTVisitor visitor) {
     return visitor.visitFunctionDeclTree(this);
   }
@@ -7,15 +7,15 @@ import visitor.*;
 public class IntTree extends AST {
 
   private Symbol symbol;
+  private long value;
 
   /**
    *  @param token is the Token containing the String representation of the integer
-   *  literal; we keep the String rather than converting to an integer value
-   *  so we don't introduce any machine dependencies with respect to integer
-   *  representations
+   *  literal and its value, decoded (and range checked) by the lexer
    */
   public IntTree(Token token) {
     this.symbol = token.getSymbol();
+    this.value = token.getLongValue();
   }
 
   public Object accept(ASTVisitor visitor) {
@@ -25,4 +25,8 @@ public class IntTree extends AST {
   public Symbol getSymbol() {
     return symbol;
   }
+
+  public long getValue() {
+    return value;
+  }
 }
@@ -7,17 +7,16 @@ import visitor.*;
 public class ScientificTree extends AST {
 
     private Symbol symbol;
+    private double value;
 
     /**
-     * @param token is the Token containing the String representation of the integer
-     *              literal; we keep the String rather than converting to an integer
-     *              value
-     *              so we don't introduce any machine dependencies with respect to
-     *              integer
-     *              representations
+     * @param token is the Token containing the String representation of the
+     *              scientific literal and its value, decoded (and range
+     *              checked) by the lexer
      */
     public ScientificTree(Token token) {
         this.symbol = token.getSymbol();
+        this.value = token.getDoubleValue();
     }
 
     public Object accept(ASTVisitor visitor) {
@@ -27,4 +26,8 @@ public class ScientificTree extends AST {
     public Symbol getSymbol() {
         return symbol;
     }
+
+    public double getValue() {
+        return value;
+    }
 }
@@ -0,0 +1,39 @@
+package bench;
+
+/**
+ * Bench holds the timing loop shared by the benchmarks; each benchmark is
+ * run a few times untimed so the JIT has compiled it before it is measured
+ */
+public class Bench {
+    private static final int WARMUP_RUNS = 5, TIMED_RUNS = 10;
+
+    /**
+     * run the benchmark and print its best time
+     *
+     * @return the best time of the timed runs, in nanoseconds
+     */
+    public static long time(String label, Runnable benchmark) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            benchmark.run();
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            long start = System.nanoTime();
+            benchmark.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        System.out.println(String.format("%-40s %10.2f ms", label, best / 1e6));
+        return best;
+    }
+
+    /**
+     * print the throughput of a benchmark over size characters
+     */
+    public static void throughput(String label, long size, Runnable benchmark) {
+        long nanos = time(label, benchmark);
+
+        System.out.println(String.format("%-40s %10.2f MB/s", "", size * 1e3 / nanos));
+    }
+}
@@ -0,0 +1,86 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+import lexer.DfaLexer;
+import lexer.Tokens;
+
+/**
+ * CursorBenchmark compares counting the identifiers of a generated program
+ * through nextToken() with counting them through the TokenCursor API, and
+ * reports the bytes allocated per token by each
+ *
+ * <pre>
+ * java bench.CursorBenchmark [lines]
+ * </pre>
+ */
+public class CursorBenchmark {
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String args[]) throws Exception {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        final char[] source = generate(lines).toCharArray();
+        final int tokens = countTokens(source);
+
+        Bench.throughput("nextToken()", source.length, () -> countWithTokens(source));
+        allocation("nextToken()", tokens, () -> countWithTokens(source));
+        Bench.throughput("TokenCursor", source.length, () -> countWithCursor(source));
+        allocation("TokenCursor", tokens, () -> countWithCursor(source));
+    }
+
+    private static int countWithTokens(char[] source) {
+        DfaLexer lexer = new DfaLexer(source);
+        int identifiers = 0;
+
+        for (lexer.Token token; (token = lexer.nextToken()) != null;) {
+            if (token.getKind() == Tokens.Identifier) {
+                identifiers++;
+            }
+        }
+        return identifiers;
+    }
+
+    private static int countWithCursor(char[] source) {
+        DfaLexer lexer = new DfaLexer(source);
+        int identifiers = 0;
+
+        while (lexer.advance()) {
+            if (lexer.kind() == Tokens.Identifier) {
+                identifiers++;
+            }
+        }
+        return identifiers;
+    }
+
+    private static int countTokens(char[] source) {
+        DfaLexer lexer = new DfaLexer(source);
+        int count = 0;
+
+        while (lexer.advance()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void allocation(String label, int tokens, Runnable benchmark) {
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        benchmark.run();
+        long bytes = threads.getThreadAllocatedBytes(thread) - before;
+
+        System.out.println(String.format("%-40s %10.2f bytes/token", label, (double) bytes / tokens));
+    }
+
+    private static String generate(int lines) {
+        StringBuilder program = new StringBuilder("program {\n");
+
+        for (int i = 0; i < lines; i++) {
+            program.append("  v").append(i % 1000)
+                    .append(" = v").append((i * 7) % 1000)
+                    .append(" + ").append(i % 100)
+                    .append(" * (v").append((i * 13) % 1000).append(" - 3) // note\n");
+        }
+
+        return program.append("}\n").toString();
+    }
+}
@@ -0,0 +1,61 @@
+package bench;
+
+import lexer.TokenBuffer;
+import lexer.Tokens;
+import parser.Parser;
+
+/**
+ * ExpressionBenchmark parses a generated, expression heavy program with
+ * the rExpr, rSimpleExpr, rTerm, rFactor cascade and with precedence
+ * climbing; the program is lexed once up front so only parsing is timed
+ *
+ * <pre>
+ * java bench.ExpressionBenchmark [lines]
+ * </pre>
+ */
+public class ExpressionBenchmark {
+
+    public static void main(String args[]) throws Exception {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        final TokenBuffer tokens = TokenBuffer.lex(generate(lines).toCharArray());
+        int operands = 0;
+
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.kind(i) == Tokens.Identifier || tokens.kind(i) == Tokens.INTeger) {
+                operands++;
+            }
+        }
+
+        long cascade = Bench.time("cascade", () -> parse(tokens, false));
+        System.out.println(String.format("%-40s %10.2f ns/operand", "", (double) cascade / operands));
+        long precedence = Bench.time("precedence climbing", () -> parse(tokens, true));
+        System.out.println(String.format("%-40s %10.2f ns/operand", "", (double) precedence / operands));
+    }
+
+    private static void parse(TokenBuffer tokens, boolean precedenceParsing) {
+        try {
+            Parser parser = new Parser(tokens.lexer());
+            parser.setPrecedenceParsing(precedenceParsing);
+            parser.execute();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String generate(int lines) {
+        StringBuilder program = new StringBuilder("program {\n  int v\n");
+
+        for (int i = 0; i < lines; i++) {
+            program.append("  v = v").append(i % 1000)
+                    .append(" + ").append(i % 100)
+                    .append(" * (v").append((i * 13) % 1000)
+                    .append(" - v").append((i * 7) % 1000)
+                    .append(" / 3) | f(v").append(i % 17)
+                    .append(", 2 & v").append(i % 5)
+                    .append(") == v").append(i % 3)
+                    .append(" - 1\n");
+        }
+
+        return program.append("}\n").toString();
+    }
+}
@@ -0,0 +1,81 @@
+package bench;
+
+import ast.AST;
+import ast.FlatAST;
+import lexer.TokenBuffer;
+import parser.Parser;
+import visitor.CountVisitor;
+
+/**
+ * FlatASTBenchmark compares the AST of a generated program made of objects
+ * with its FlatAST: the heap each keeps, the time to walk each and the
+ * time for a visitor to walk the views of the flat one; the program is
+ * lexed once up front
+ *
+ * <pre>
+ * java bench.FlatASTBenchmark [functions]
+ * </pre>
+ */
+public class FlatASTBenchmark {
+
+    public static void main(String args[]) throws Exception {
+        int functions = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        TokenBuffer tokens = TokenBuffer.lex(ParallelParseBenchmark.generate(functions).toCharArray());
+
+        long before = used();
+        AST t = new Parser(tokens).execute();
+        long objectBytes = used() - before;
+
+        before = used();
+        FlatAST flat = FlatAST.of(lazy(tokens));
+        long flatBytes = used() - before;
+
+        System.out.println(String.format("%-40s %10d", "nodes", flat.size()));
+        System.out.println(String.format("%-40s %10.2f bytes/node", "objects", (double) objectBytes / flat.size()));
+        System.out.println(String.format("%-40s %10.2f bytes/node", "flat", (double) flatBytes / flat.size()));
+
+        Bench.time("walk objects", () -> walk(t));
+        Bench.time("walk flat", () -> walk(flat));
+        Bench.time("count visitor, objects", () -> t.accept(new CountVisitor()));
+        Bench.time("count visitor, flat views", () -> flat.root().accept(new CountVisitor()));
+    }
+
+    private static AST lazy(TokenBuffer tokens) throws Exception {
+        Parser parser = new Parser(tokens);
+        parser.setLazyBodies(true);
+        return parser.execute();
+    }
+
+    /**
+     * @return the number of nodes with kids
+     */
+    private static int walk(AST t) {
+        int count = t.kidCount() > 0 ? 1 : 0;
+
+        for (AST kid : t.getKids()) {
+            count += walk(kid);
+        }
+        return count;
+    }
+
+    private static int walk(FlatAST flat) {
+        int count = 0;
+
+        // the nodes are in preorder, so a walk is a scan
+        for (int node = 0; node < flat.size(); node++) {
+            if (flat.firstKid(node) >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long used() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,62 @@
+package bench;
+
+import ast.AST;
+import java.lang.management.ManagementFactory;
+import lexer.TokenBuffer;
+import parser.Parser;
+
+/**
+ * LazyParseBenchmark lists the headers of the functions of a generated
+ * program, parsing their bodies as it goes and with lazy bodies, and
+ * reports the time and the bytes allocated by each; the program is lexed
+ * once up front so only parsing is measured
+ *
+ * <pre>
+ * java bench.LazyParseBenchmark [functions]
+ * </pre>
+ */
+public class LazyParseBenchmark {
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String args[]) throws Exception {
+        int functions = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        final TokenBuffer tokens = TokenBuffer.lex(ParallelParseBenchmark.generate(functions).toCharArray());
+
+        Bench.time("headers, bodies parsed", () -> headers(tokens, false));
+        allocation("headers, bodies parsed", () -> headers(tokens, false));
+        Bench.time("headers, lazy bodies", () -> headers(tokens, true));
+        allocation("headers, lazy bodies", () -> headers(tokens, true));
+    }
+
+    /**
+     * @return the number of formals of all of the functions
+     */
+    private static int headers(TokenBuffer tokens, boolean lazyBodies) {
+        try {
+            Parser parser = new Parser(tokens);
+            parser.setLazyBodies(lazyBodies);
+            AST block = parser.execute().getKid(1);
+            int formals = 0;
+
+            for (int i = 1; i <= block.kidCount(); i++) {
+                AST decl = block.getKid(i);
+                if (decl.kidCount() == 4) {
+                    formals += decl.getKid(3).kidCount();
+                }
+            }
+            return formals;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void allocation(String label, Runnable benchmark) {
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        benchmark.run();
+        long bytes = threads.getThreadAllocatedBytes(thread) - before;
+
+        System.out.println(String.format("%-40s %10.2f MB", label, bytes / 1e6));
+    }
+}
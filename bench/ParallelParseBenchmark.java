@@ -0,0 +1,54 @@
+package bench;
+
+import java.util.concurrent.ForkJoinPool;
+import lexer.TokenBuffer;
+import parser.ParallelParser;
+import parser.Parser;
+
+/**
+ * ParallelParseBenchmark parses a generated program of many functions
+ * with Parser and with ParallelParser on the common pool; the program is
+ * lexed once up front so only parsing is timed
+ *
+ * <pre>
+ * java bench.ParallelParseBenchmark [functions]
+ * </pre>
+ */
+public class ParallelParseBenchmark {
+
+    public static void main(String args[]) throws Exception {
+        int functions = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        final TokenBuffer tokens = TokenBuffer.lex(generate(functions).toCharArray());
+
+        System.out.println("parallelism " + ForkJoinPool.commonPool().getParallelism());
+        Bench.time("Parser", () -> {
+            try {
+                new Parser(tokens.lexer()).execute();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Bench.time("ParallelParser", () -> {
+            try {
+                ParallelParser.parse(tokens);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    static String generate(int functions) {
+        StringBuilder program = new StringBuilder("program {\n  int n\n");
+
+        for (int f = 0; f < functions; f++) {
+            program.append("  int f").append(f).append("(int a, int b) {\n");
+            for (int s = 0; s < 20; s++) {
+                program.append("    if a < b * ").append(s).append(" then { a = a + f")
+                        .append((f + s) % functions).append("(b, a - ").append(s).append(") }\n");
+            }
+            program.append("    return a\n  }\n");
+        }
+
+        return program.append("  n = f0(1, 2)\n}\n").toString();
+    }
+}
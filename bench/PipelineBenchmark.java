@@ -0,0 +1,62 @@
+package bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lexer.Lexer;
+import lexer.PipelinedLexer;
+import parser.Parser;
+
+/**
+ * PipelineBenchmark compares parsing with the Lexer called from the
+ * parser's thread to parsing with the Lexer running on its own thread
+ * behind a PipelinedLexer, on a generated program
+ *
+ * <pre>
+ * java bench.PipelineBenchmark [statements]
+ * </pre>
+ */
+public class PipelineBenchmark {
+
+    public static void main(String args[]) throws Exception {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        final Path file = Files.createTempFile("pipeline", ".x");
+        Files.writeString(file, generate(statements));
+        final String sourceFile = file.toString();
+
+        System.out.println("processors: " + Runtime.getRuntime().availableProcessors());
+
+        Bench.throughput("Parser (sequential)", Files.size(file), () -> {
+            try {
+                new Parser(new Lexer(sourceFile)).execute();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Bench.throughput("Parser (pipelined)", Files.size(file), () -> {
+            try (PipelinedLexer lexer = new PipelinedLexer(new Lexer(sourceFile))) {
+                new Parser(lexer).execute();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        Files.delete(file);
+    }
+
+    private static String generate(int statements) {
+        StringBuilder program = new StringBuilder("program {\n");
+        int variables = 1000;
+
+        for (int i = 0; i < variables; i++) {
+            program.append("  int v").append(i).append('\n');
+        }
+        for (int i = 0; i < statements; i++) {
+            program.append("  v").append(i % variables)
+                    .append(" = v").append((i * 7) % variables)
+                    .append(" + ").append(i)
+                    .append(" * (v").append((i * 13) % variables).append(" - 3)\n");
+        }
+
+        return program.append("}\n").toString();
+    }
+}
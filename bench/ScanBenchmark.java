@@ -0,0 +1,89 @@
+package bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lexer.BufferLexer;
+import lexer.CharScanner;
+import lexer.Lexer;
+import lexer.Utf8Lexer;
+import lexer.readers.MappedSourceReader;
+
+/**
+ * ScanBenchmark compares the Lexer with BufferLexer using the scalar and
+ * the Vector API scanners, on a generated program that is mostly
+ * indentation and comments; it also times going from the file to tokens
+ * by decoding it to chars (BufferLexer) and by lexing its bytes
+ * (Utf8Lexer)
+ *
+ * <pre>
+ * java --add-modules jdk.incubator.vector bench.ScanBenchmark [lines]
+ * </pre>
+ */
+public class ScanBenchmark {
+
+    public static void main(String args[]) throws Exception {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        final char[] source = generate(lines).toCharArray();
+        final Path file = Files.createTempFile("scan", ".x");
+        Files.writeString(file, new String(source));
+
+        System.out.println("vector scanner: " + CharScanner.BEST.getClass().getSimpleName());
+
+        Bench.throughput("Lexer (MappedSourceReader)", source.length, () -> {
+            try {
+                Lexer lexer = new Lexer(new MappedSourceReader(file.toString()));
+                while (lexer.nextToken() != null) {
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Bench.throughput("BufferLexer (scalar)", source.length, () -> lex(source, CharScanner.SCALAR));
+        Bench.throughput("BufferLexer (vector)", source.length, () -> lex(source, CharScanner.BEST));
+        Bench.throughput("BufferLexer (file)", source.length, () -> {
+            try {
+                BufferLexer lexer = new BufferLexer(file.toString());
+                while (lexer.nextToken() != null) {
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Bench.throughput("Utf8Lexer (file)", source.length, () -> {
+            try {
+                Utf8Lexer lexer = new Utf8Lexer(file.toString());
+                while (lexer.nextToken() != null) {
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        Files.delete(file);
+    }
+
+    private static void lex(char[] source, CharScanner scanner) {
+        BufferLexer lexer = new BufferLexer(source);
+        lexer.setScanner(scanner);
+        while (lexer.nextToken() != null) {
+        }
+    }
+
+    private static String generate(int lines) {
+        StringBuilder program = new StringBuilder("program {\n");
+
+        String indent = " ".repeat(64);
+        String comment = "// " + "a generated comment that runs on for quite a while ".repeat(3);
+
+        for (int i = 0; i < lines; i++) {
+            program.append(indent);
+            if (i % 4 != 0) {
+                program.append(comment).append(i).append('\n');
+            } else {
+                program.append("int a_rather_long_generated_identifier_").append(i).append('\n');
+            }
+        }
+
+        return program.append("}\n").toString();
+    }
+}
@@ -87,6 +87,7 @@ public class Codegen extends ASTVisitor {
 
     Program program; // program will contain the generated bytecodes
     int labelNum; // used for creating new, unique labels
+    ArrayList<String> errors = new ArrayList<String>(); // values the machine cannot load
 
     /**
      * Create a new code generator based on the given AST
@@ -108,6 +109,15 @@ public class Codegen extends ASTVisitor {
         return program;
     }
 
+    /**
+     * @return the errors found by execute(), e.g. a scientific literal
+     *         the machine cannot load; the program is only usable if
+     *         there are none
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
     Frame topFrame() {
         if (frameSizes.empty())
             System.out.println("frames empty");
@@ -454,8 +464,8 @@ public class Codegen extends ASTVisitor {
      */
     public Object visitIntTree(AST t) {
         // System.out.println("visitIntTree");
-        int num = Integer.parseInt(
-                ((IntTree) t).getSymbol().toString());
+        // the lexer has checked that the literal fits in an int
+        int num = (int) ((IntTree) t).getValue();
         storeop(new NumOpcode(Codes.ByteCodes.LIT, num));
         return null;
     }
@@ -469,7 +479,13 @@ public class Codegen extends ASTVisitor {
 
     public Object visitScientificTree(AST t) {
         // System.out.println("visitIntTree");
-        int num = Integer.parseInt(((StringTree) t).getSymbol().toString());
+        // the machine only has int literals, so only a whole number that
+        // fits in an int can be loaded; any other value is an error
+        double value = ((ScientificTree) t).getValue();
+        int num = (int) value;
+        if (num != value) {
+            errors.add("******** scientific literal is not an int: " + ((ScientificTree) t).getSymbol() + "<");
+        }
         storeop(new StringOpcode(Codes.ByteCodes.LIT, num));
         return null;
     }
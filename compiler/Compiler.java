@@ -11,6 +11,11 @@ import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import lexer.Lexer;
+import lexer.TokenListener;
+import lexer.TokenTracer;
+import lexer.readers.ChannelReader;
+import lexer.readers.SourceReader;
 import parser.Parser;
 import visitor.*;
 
@@ -20,17 +25,98 @@ import visitor.*;
  */
 public class Compiler {
 
+  // the name of the source file; "-" is standard input
   String sourceFile;
+  // the source program itself, when it is compiled from memory
+  byte[] source;
+  // told of each token the parser scans
+  TokenListener tokenListener = TokenListener.NONE;
+  // if true the parse carries on past errors and reports them all
+  boolean recovery = false;
 
   public Compiler(String sourceFile) {
     this.sourceFile = sourceFile;
   }
 
+  /**
+   * compile a program held in memory, e.g. one just generated, without
+   * writing it to a file first
+   *
+   * @param source is the UTF-8 encoded program
+   */
+  public Compiler(byte[] source) {
+    this.sourceFile = "-";
+    this.source = source;
+  }
+
+  /**
+   * trace the tokens of the compilation
+   *
+   * @param trace receives a line for each token the parser scans
+   */
+  public void setTrace(Writer trace) {
+    tokenListener = new TokenTracer(trace);
+  }
+
+  /**
+   * @param recovery if true every lexical and syntax error in the program
+   *                 is reported, rather than just the first
+   */
+  public void setRecovery(boolean recovery) {
+    this.recovery = recovery;
+  }
+
+  /**
+   * @return a parser over the source that lists each source line as
+   *         the lexer reaches it
+   */
+  private Parser newParser() throws Exception {
+    try {
+      if (source != null || sourceFile.equals("-")) {
+        ChannelReader reader = new ChannelReader(
+            source != null ? new ByteArrayInputStream(source) : System.in);
+        reader.setEcho(true);
+
+        return newParser(new Lexer(reader));
+      }
+
+      SourceReader reader = new SourceReader(sourceFile);
+      reader.setEcho(true);
+
+      return newParser(new Lexer(reader));
+    } catch (IOException e) {
+      System.out.println("********exception*******" + e.toString());
+      throw e;
+    }
+  }
+
+  private Parser newParser(Lexer lexer) throws Exception {
+    Parser parser = new Parser(lexer, tokenListener);
+    parser.setRecovery(recovery);
+
+    return parser;
+  }
+
+  /**
+   * print the errors found by a parse that recovered from them
+   *
+   * @return true if there were any
+   */
+  private boolean reportErrors(Parser parser) {
+    for (String error : parser.getErrors()) {
+      System.out.println(error);
+    }
+    return !parser.getErrors().isEmpty();
+  }
+
   public void compileProgram() {
     try {
       System.out.println("---------------TOKENS-------------");
-      Parser parser = new Parser(sourceFile);
+      Parser parser = newParser();
       AST t = parser.execute();
+      if (reportErrors(parser)) {
+        return;
+      }
 
       System.out.println("\n---------------AST-------------");
       PrintVisitor pv = new PrintVisitor();
@@ -68,8 +154,11 @@ public class Compiler {
   public void generateAstImage() {
     try {
       System.out.println("---------------TOKENS-------------");
-      Parser parser = new Parser(sourceFile);
+      Parser parser = newParser();
       AST ast = parser.execute();
+      if (reportErrors(parser)) {
+        return;
+      }
 
       System.out.println("\n---------------AST-------------");
       PrintVisitor printVisitor = new PrintVisitor();
@@ -88,7 +177,7 @@ public class Compiler {
       // ast.accept(drawVisitor);
 
       try {
-        File imagefile = new File(sourceFile + ".png");
+        File imagefile = new File((sourceFile.equals("-") ? "stdin" : sourceFile) + ".png");
         ImageIO.write(drawOffsetVisitor.getImage(), "png", imagefile);
       } catch (Exception e) {
         System.out.println("Error in saving image: " + e.getMessage());
@@ -123,12 +212,23 @@ public class Compiler {
   public static void main(String args[]) {
     if (args.length == 0) {
       System.out.println(
-          "***Incorrect usage, try: java compiler.Compiler <file> [-image]");
+          "***Incorrect usage, try: java compiler.Compiler <file> [-image] [-trace] [-recover]   (<file> - reads standard input)");
       System.exit(1);
     }
     Compiler compiler = new Compiler(args[0]);
+    boolean image = false;
+
+    for (int i = 1; i < args.length; i++) {
+      if (args[i].equalsIgnoreCase("-image")) {
+        image = true;
+      } else if (args[i].equalsIgnoreCase("-trace")) {
+        compiler.setTrace(new PrintWriter(System.out, true));
+      } else if (args[i].equalsIgnoreCase("-recover")) {
+        compiler.setRecovery(true);
+      }
+    }
 
-    if (args.length == 2 && args[1].equalsIgnoreCase("-image")) {
+    if (image) {
       compiler.generateAstImage();
     } else {
       try {
@@ -0,0 +1,372 @@
+package lexer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import tests.ILexer;
+
+/**
+ * The BufferLexer class scans a source program that is held entirely in
+ * a char[] buffer; rather than building each token's text a character at
+ * a time it records the start and end offsets of the token and
+ * materializes the text (and looks up its Symbol) once, from that slice
+ * of the buffer<br>
+ * Tokens, line numbers and positions are the same as those produced by
+ * Lexer over a SourceReader, except for a string literal that runs past
+ * the end of its line: Lexer ends it on the next line and carries on
+ * (s = "abc\n  x = 1 gives the string "abc "), while BufferLexer (and
+ * so DfaLexer, Utf8Lexer and TokenBuffer) stops there with a missing
+ * quotations error
+ */
+public class BufferLexer implements ILexer, TokenCursor {
+    // strings of this compilation, and the slices interned so far
+    protected SymbolTable symbolTable;
+    private SymbolCache symbolCache;
+    // finds the ends of blank, comment and identifier runs
+    protected CharScanner scanner = CharScanner.BEST;
+    protected char[] buffer;
+    // next character to process
+    protected int index;
+    protected int limit;
+    protected boolean atEOF = false;
+    // set once scanning stopped at an error rather than at the end
+    protected boolean failed = false;
+
+    // line number and buffer offset of the first character of the
+    // line currently being scanned
+    protected int lineNumber;
+    protected int lineStart;
+
+    // the token just scanned: its kind, buffer offsets [start, end),
+    // line, symbol and, for literals, value
+    protected Tokens kind;
+    protected int tokenStart, tokenEnd;
+    protected int tokenLine, tokenLineStart;
+    protected Symbol symbol;
+    protected long longValue;
+    protected double doubleValue;
+    // the text of the token, handed out by text()
+    private final CharSlice text = new CharSlice();
+    // recognizes and decodes numeric literals in the buffer
+    private final NumberScanner numbers = new NumberScanner() {
+        protected char charAt(int at) {
+            return buffer[at];
+        }
+
+        protected String slice(int start, int end) {
+            return BufferLexer.this.slice(start, end);
+        }
+
+        protected long intValue(int start, int end) {
+            return NumericLiterals.intValue(buffer, start, end);
+        }
+    };
+
+    /**
+     * BufferLexer constructor
+     *
+     * @param sourceFile is the name of the File to read the program source from
+     */
+    public BufferLexer(String sourceFile) throws IOException {
+        this(readSource(sourceFile));
+    }
+
+    public BufferLexer(char[] buffer) {
+        this(buffer, 0, buffer.length, 1, new SymbolTable());
+    }
+
+    /**
+     * @param buffer      holds the source program
+     * @param from        is the offset of the first character to scan; it
+     *                    must be the start of a line
+     * @param to          is the offset just past the last character to scan
+     * @param firstLine   is the line number of the line starting at from
+     * @param symbolTable interns the strings of the program
+     */
+    public BufferLexer(char[] buffer, int from, int to, int firstLine, SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+        this.symbolCache = new SymbolCache(symbolTable);
+        this.buffer = buffer;
+        this.index = from;
+        this.limit = to;
+        this.lineNumber = firstLine;
+        this.lineStart = from;
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    public void setScanner(CharScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    public static char[] readSource(String sourceFile) throws IOException {
+        return Files.readString(Paths.get(sourceFile)).toCharArray();
+    }
+
+    /**
+     * @return the next Token found in the source buffer
+     */
+    public Token nextToken() {
+        if (!advance()) {
+            return null;
+        }
+
+        if (kind == Tokens.INTeger) {
+            return new Token(start(), end(), symbol, tokenLine, longValue);
+        }
+        if (kind == Tokens.ScientificLit) {
+            return new Token(start(), end(), symbol, tokenLine, doubleValue);
+        }
+        return new Token(start(), end(), symbol, tokenLine);
+    }
+
+    public boolean advance() {
+        return scan();
+    }
+
+    public Tokens kind() {
+        return kind;
+    }
+
+    public Symbol symbol() {
+        return symbol;
+    }
+
+    public int start() {
+        return tokenStart - tokenLineStart;
+    }
+
+    public int end() {
+        return tokenEnd - tokenLineStart - 1;
+    }
+
+    public int line() {
+        return tokenLine;
+    }
+
+    public CharSequence text() {
+        return text.set(buffer, tokenStart, tokenEnd);
+    }
+
+    public long longValue() {
+        return longValue;
+    }
+
+    public double doubleValue() {
+        return doubleValue;
+    }
+
+    /**
+     * scan the next token, leaving its description in kind, tokenStart,
+     * tokenEnd, tokenLine, symbol and (for literals) the value fields
+     *
+     * @return false once the end of the buffer (or an error) is reached
+     */
+    protected boolean scan() {
+        while (!atEOF) {
+            skipWhitespace();
+
+            if (index >= limit) {
+                atEOF = true;
+                break;
+            }
+
+            tokenStart = index;
+            tokenLine = lineNumber;
+            tokenLineStart = lineStart;
+
+            char ch = buffer[index];
+
+            if (ch == '"') {
+                return scanString();
+            }
+            if (CharClass.isIdentifierStart(ch)) {
+                return scanIdentifier();
+            }
+            if (CharClass.isDigit(ch)) {
+                return scanNumber();
+            }
+
+            // At this point the only tokens to check for are one or two
+            // characters; comments begin with 2 slashes
+            symbol = null;
+            if (ch < 128) {
+                if (index + 1 < limit && buffer[index + 1] < 128) {
+                    symbol = Operators.pair(ch, buffer[index + 1]);
+                }
+                if (symbol != null) {
+                    index += 2;
+                } else {
+                    symbol = Operators.single(ch);
+                    index++;
+                }
+            }
+            if (symbol == null) {
+                return errorHandling("******** illegal character: " + ch + "<");
+            }
+
+            if (symbol.getKind() == Tokens.Comment) {
+                skipComment();
+                continue;
+            }
+
+            return accept(symbol.getKind());
+        }
+
+        return false;
+    }
+
+    /**
+     * scan past whitespace, counting lines as they go by
+     */
+    protected void skipWhitespace() {
+        while (index < limit) {
+            index = scanner.skipBlanks(buffer, index, limit);
+            if (index >= limit) {
+                return;
+            }
+
+            char ch = buffer[index];
+
+            if (ch == '\n' || ch == '\r') {
+                endLine();
+            } else if (CharClass.isWhitespace(ch)) {
+                index++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * comments run to the end of the line
+     */
+    protected void skipComment() {
+        index = scanner.lineEnd(buffer, index, limit);
+    }
+
+    /**
+     * consume the line terminator at index ("\n", "\r" or "\r\n") and
+     * start the next line
+     */
+    protected void endLine() {
+        if (buffer[index] == '\r' && index + 1 < limit && buffer[index + 1] == '\n') {
+            index++;
+        }
+        index++;
+        lineNumber++;
+        lineStart = index;
+    }
+
+    /**
+     * string literals may not span lines; the symbol is the text
+     * between the quotes
+     */
+    protected boolean scanString() {
+        index++;
+        while (index < limit && buffer[index] != '"') {
+            if (buffer[index] == '\n' || buffer[index] == '\r') {
+                return errorHandling("***** Missing Closing Quotations *****");
+            }
+            index++;
+        }
+        if (index >= limit) {
+            return errorHandling("***** Missing Closing Quotations *****");
+        }
+        index++;
+
+        symbol = intern(tokenStart + 1, index - 1, Tokens.StringLit);
+        return accept(Tokens.StringLit);
+    }
+
+    /**
+     * ids are either identifiers or reserved words; reserved words are
+     * recognized from the slice itself, only identifiers are looked up in
+     * the symbol table
+     */
+    protected boolean scanIdentifier() {
+        index = scanner.identifierEnd(buffer, index + 1, limit);
+        // the scanner stops at anything outside of ASCII
+        while (index < limit && CharClass.isIdentifierPart(buffer[index])) {
+            index = scanner.identifierEnd(buffer, index + 1, limit);
+        }
+
+        symbol = Keywords.symbol(buffer, tokenStart, index - tokenStart);
+        if (symbol == null) {
+            symbol = intern(tokenStart, index, Tokens.Identifier);
+        }
+        return accept(symbol.getKind());
+    }
+
+    /**
+     * numbers are either integers or scientific literals, as NumberScanner
+     * recognizes them
+     */
+    protected boolean scanNumber() {
+        boolean scanned = numbers.scan(tokenStart, limit);
+
+        index = numbers.end;
+        return scanned ? acceptNumber() : errorHandling(numbers.error);
+    }
+
+    /**
+     * accept the literal in buffer[tokenStart, index), decoding its value;
+     * literals that cannot be represented are errors
+     *
+     * @param kind is either INTeger or ScientificLit
+     */
+    protected boolean acceptNumber(Tokens kind) {
+        return numbers.decode(kind, tokenStart, index) ? acceptNumber() : errorHandling(numbers.error);
+    }
+
+    private boolean acceptNumber() {
+        longValue = numbers.longValue;
+        doubleValue = numbers.doubleValue;
+        symbol = intern(tokenStart, index, numbers.kind);
+        return accept(numbers.kind);
+    }
+
+    /**
+     * @return the Symbol for buffer[start, end), without building a String
+     *         if this lexer has seen it before
+     */
+    protected Symbol intern(int start, int end, Tokens kind) {
+        return symbolCache.symbol(buffer, start, end, kind);
+    }
+
+    protected boolean accept(Tokens kind) {
+        this.kind = kind;
+        tokenEnd = index;
+        return true;
+    }
+
+    /**
+     * report the error at the current token and stop scanning
+     */
+    protected boolean errorHandling(String message) {
+        report(errorMessage(message, tokenLine, tokenStart - tokenLineStart));
+        atEOF = true;
+        failed = true;
+        return false;
+    }
+
+    /**
+     * print the error that stopped scanning; a subclass may keep it instead
+     */
+    protected void report(String error) {
+        System.out.println(error);
+    }
+
+    /**
+     * @return message as the lexers print it, for a token at line and position
+     */
+    static String errorMessage(String message, int line, int position) {
+        return message + " \n at line: " + line + " Position: " + position;
+    }
+
+    protected String slice(int start, int end) {
+        return new String(buffer, start, end - start);
+    }
+}
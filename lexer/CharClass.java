@@ -0,0 +1,38 @@
+package lexer;
+
+/**
+ * This file is automatically generated<br>
+ * it contains the classes of the ASCII characters as flags, so the
+ * lexers classify a character with a single array load; characters
+ * outside of ASCII are classified by the Unicode routines of Character
+ */
+public class CharClass {
+    public static final int WHITESPACE = 1, ID_START = 2, ID_PART = 4, DIGIT = 8;
+
+    private static final byte[] flags = {
+             4,  4,  4,  4,  4,  4,  4,  4,  4,  1,  1,  1,  1,  1,  4,  4,
+             4,  4,  4,  4,  4,  4,  4,  4,  4,  4,  4,  4,  1,  1,  1,  1,
+             1,  0,  0,  0,  6,  0,  0,  0,  0,  0,  0,  0,  0,  0,  0,  0,
+            12, 12, 12, 12, 12, 12, 12, 12, 12, 12,  0,  0,  0,  0,  0,  0,
+             0,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,
+             6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  0,  0,  0,  0,  6,
+             0,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,
+             6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  6,  0,  0,  0,  0,  4,
+    };
+
+    public static boolean isWhitespace(char ch) {
+        return ch < 128 ? (flags[ch] & WHITESPACE) != 0 : Character.isWhitespace(ch);
+    }
+
+    public static boolean isIdentifierStart(char ch) {
+        return ch < 128 ? (flags[ch] & ID_START) != 0 : Character.isJavaIdentifierStart(ch);
+    }
+
+    public static boolean isIdentifierPart(char ch) {
+        return ch < 128 ? (flags[ch] & ID_PART) != 0 : Character.isJavaIdentifierPart(ch);
+    }
+
+    public static boolean isDigit(char ch) {
+        return ch < 128 ? (flags[ch] & DIGIT) != 0 : Character.isDigit(ch);
+    }
+}
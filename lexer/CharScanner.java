@@ -0,0 +1,44 @@
+package lexer;
+
+/**
+ * A CharScanner finds the end of the character runs the lexer spends most
+ * of its time in: blanks, comments and identifiers; each method returns
+ * the offset of the first character in buffer[from, to) that does not
+ * belong to the run (or to if they all do)<br>
+ * BEST is the Vector API scanner when it was compiled (from the separate
+ * vector/ source tree) and the jdk.incubator.vector module is available
+ * (run with --add-modules jdk.incubator.vector), and the scalar scanner
+ * otherwise
+ */
+public interface CharScanner {
+    /**
+     * @return the offset of the first character that is not a space or tab
+     */
+    public int skipBlanks(char[] buffer, int from, int to);
+
+    /**
+     * @return the offset of the first '\n' or '\r'
+     */
+    public int lineEnd(char[] buffer, int from, int to);
+
+    /**
+     * @return the offset of the first character that is not an ASCII
+     *         letter, digit, '_' or '$'
+     */
+    public int identifierEnd(char[] buffer, int from, int to);
+
+    public static final CharScanner SCALAR = new ScalarCharScanner();
+    public static final CharScanner BEST = best();
+
+    private static CharScanner best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (CharScanner) Class.forName("lexer.VectorCharScanner")
+                        .getDeclaredConstructor().newInstance();
+            } catch (Throwable e) {
+                /* fall back to the scalar scanner */ }
+        }
+
+        return SCALAR;
+    }
+}
@@ -0,0 +1,40 @@
+package lexer;
+
+/**
+ * A CharSlice is a CharSequence over part of a char[] buffer; a cursor
+ * keeps one and points it at each token in turn rather than building a
+ * String per token
+ */
+class CharSlice implements CharSequence {
+    private char[] buffer;
+    private int start, end;
+
+    CharSlice set(char[] buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    public int length() {
+        return end - start;
+    }
+
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return buffer[start + index];
+    }
+
+    public CharSequence subSequence(int from, int to) {
+        if (from < 0 || from > to || to > end - start) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new CharSlice().set(buffer, start + from, start + to);
+    }
+
+    public String toString() {
+        return new String(buffer, start, end - start);
+    }
+}
@@ -0,0 +1,215 @@
+package lexer;
+
+import java.io.IOException;
+
+/**
+ * This file is automatically generated<br>
+ * it contains the DFA built from the tokens file, as a transition
+ * table indexed by state and character class, and the scanner that
+ * drives it; the longest match wins
+ */
+public class DfaLexer extends BufferLexer {
+    private static final int OTHER = 0;
+    private static final int WHITESPACE = 1;
+    private static final int NEWLINE = 2;
+    private static final int LETTER = 3;
+    private static final int EXPONENT = 4;
+    private static final int DIGIT = 5;
+    private static final int QUOTE = 6;
+    private static final int CLASSES = 25;
+
+    private static final byte[] asciiClass = {
+             0,  0,  0,  0,  0,  0,  0,  0,  0,  1,  2,  1,  1,  2,  0,  0,
+             0,  0,  0,  0,  0,  0,  0,  0,  0,  0,  0,  0,  1,  1,  1,  1,
+             1, 13,  6,  0,  3,  0, 18,  0,  9, 10, 19, 15, 11, 16, 24, 20,
+             5,  5,  5,  5,  5,  5,  5,  5,  5,  5,  0,  0, 14, 12, 21,  0,
+             0,  3,  3,  3,  3,  4,  3,  3,  3,  3,  3,  3,  3,  3,  3,  3,
+             3,  3,  3,  3,  3,  3,  3,  3,  3,  3,  3, 22,  0, 23,  0,  3,
+             0,  3,  3,  3,  3,  4,  3,  3,  3,  3,  3,  3,  3,  3,  3,  3,
+             3,  3,  3,  3,  3,  3,  3,  3,  3,  3,  3,  7, 17,  8,  0,  0,
+    };
+
+    // next state = transitions[state * CLASSES + class]; -1 when there is none
+    private static final short[] transitions = {
+            -1, -1, -1,  1,  1,  2, 28,  4,  5,  6,  7,  8,  9, 11, 13, 15, 16, 17, 18, 19, 20, 22, 24, 25, 26,
+            -1, -1, -1,  1,  1,  1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1,  3, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 30,
+            -1, -1, -1, -1, -1,  3, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 10, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 12, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 14, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 21, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 23, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 27,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            28, 28, -1, 28, 28, 28, 29, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, 31, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, 33, 32, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, 33, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 34, 34, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, 35, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+            -1, -1, -1, -1, -1, 35, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+    };
+
+    private static final Tokens[] accepting = {
+            null,
+            Tokens.Identifier,
+            Tokens.INTeger,
+            Tokens.INTeger,
+            Tokens.LeftBrace,
+            Tokens.RightBrace,
+            Tokens.LeftParen,
+            Tokens.RightParen,
+            Tokens.Comma,
+            Tokens.Assign,
+            Tokens.Equal,
+            null,
+            Tokens.NotEqual,
+            Tokens.Less,
+            Tokens.LessEqual,
+            Tokens.Plus,
+            Tokens.Minus,
+            Tokens.Or,
+            Tokens.And,
+            Tokens.Multiply,
+            Tokens.Divide,
+            Tokens.Comment,
+            Tokens.Greater,
+            Tokens.GreaterEqual,
+            Tokens.LeftBracket,
+            Tokens.RightBracket,
+            null,
+            Tokens.Range,
+            null,
+            Tokens.StringLit,
+            null,
+            null,
+            null,
+            null,
+            null,
+            Tokens.ScientificLit,
+    };
+
+    private static final Symbol[] symbols = new Symbol[accepting.length];
+
+    static {
+        for (int state = 0; state < accepting.length; state++) {
+            if (accepting[state] != null) {
+                symbols[state] = TokenType.tokens.get(accepting[state]);
+            }
+        }
+    }
+
+    public DfaLexer(String sourceFile) throws IOException {
+        super(sourceFile);
+    }
+
+    public DfaLexer(char[] buffer) {
+        super(buffer);
+    }
+
+    public DfaLexer(char[] buffer, int from, int to, int firstLine, SymbolTable symbolTable) {
+        super(buffer, from, to, firstLine, symbolTable);
+    }
+
+    private static int classOf(char ch) {
+        if (ch < 128) {
+            return asciiClass[ch];
+        }
+        if (Character.isDigit(ch)) {
+            return DIGIT;
+        }
+        if (Character.isJavaIdentifierStart(ch)) {
+            return LETTER;
+        }
+        if (Character.isWhitespace(ch)) {
+            return WHITESPACE;
+        }
+        return OTHER;
+    }
+
+    @Override
+    protected boolean scan() {
+        while (!atEOF) {
+            // scan past whitespace
+            int cls;
+            while (index < limit && ((cls = classOf(buffer[index])) == WHITESPACE || cls == NEWLINE)) {
+                if (cls == NEWLINE) {
+                    endLine();
+                } else {
+                    index++;
+                }
+            }
+            if (index >= limit) {
+                atEOF = true;
+                break;
+            }
+
+            tokenStart = index;
+            tokenLine = lineNumber;
+            tokenLineStart = lineStart;
+
+            int state = 0, lastAccept = -1, lastAcceptEnd = index;
+            for (int at = index; at < limit; at++) {
+                state = transitions[state * CLASSES + classOf(buffer[at])];
+                if (state < 0) {
+                    break;
+                }
+                if (accepting[state] != null) {
+                    lastAccept = state;
+                    lastAcceptEnd = at + 1;
+                }
+            }
+
+            if (lastAccept < 0) {
+                // only a string can start with a quote, so it has no closing one
+                if (classOf(buffer[index]) == QUOTE) {
+                    return errorHandling("***** Missing Closing Quotations *****");
+                }
+                return errorHandling("******** illegal character: " + buffer[index] + "<");
+            }
+            index = lastAcceptEnd;
+
+            switch (accepting[lastAccept]) {
+                case Comment:
+                    skipComment();
+                    continue;
+                case Identifier:
+                    symbol = Keywords.symbol(buffer, tokenStart, index - tokenStart);
+                    if (symbol == null) {
+                        symbol = intern(tokenStart, index, Tokens.Identifier);
+                    }
+                    return accept(symbol.getKind());
+                case StringLit:
+                    symbol = intern(tokenStart + 1, index - 1, Tokens.StringLit);
+                    return accept(Tokens.StringLit);
+                case INTeger:
+                case ScientificLit:
+                    return acceptNumber(accepting[lastAccept]);
+                default:
+                    symbol = symbols[lastAccept];
+                    return accept(accepting[lastAccept]);
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,196 @@
+package lexer;
+
+import java.util.ArrayList;
+import java.util.List;
+import tests.ILexer;
+
+/**
+ * The IncrementalLexer class keeps the tokens of a source program line by
+ * line so an editor can relex it as it is edited; no token spans lines
+ * (string literals and comments end with their line), so an edit only
+ * relexes the lines it touches and splices their tokens in among the
+ * tokens of the others<br>
+ * Tokens are kept relative to their line and only numbered when they are
+ * handed out, so the lines after an edit are not touched either<br>
+ * Errors do not stop lexing: each line records its own error, and
+ * lexer() stops after the first line with one, as Lexer would
+ */
+public class IncrementalLexer {
+    private final SymbolTable symbolTable;
+    private final ArrayList<Line> lines = new ArrayList<Line>();
+
+    public IncrementalLexer(String source) {
+        this(source, new SymbolTable());
+    }
+
+    public IncrementalLexer(String source, SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+        lines.addAll(lex(source));
+    }
+
+    /**
+     * replace the text from (startLine, startColumn) up to (endLine,
+     * endColumn) with replacement and relex the lines that changed
+     *
+     * @param startLine   is the number of the first line edited; lines start at 1
+     * @param startColumn is the column of the first character replaced
+     * @param endLine     is the number of the last line edited
+     * @param endColumn   is the column just past the last character replaced
+     * @return the number of lines lexed
+     */
+    public int edit(int startLine, int startColumn, int endLine, int endColumn, String replacement) {
+        String first = lines.get(startLine - 1).text, last = lines.get(endLine - 1).text;
+        List<Line> edited = lex(first.substring(0, startColumn) + replacement + last.substring(endColumn));
+
+        List<Line> replaced = lines.subList(startLine - 1, endLine);
+        replaced.clear();
+        replaced.addAll(edited);
+
+        return edited.size();
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    public int getLineCount() {
+        return lines.size();
+    }
+
+    /**
+     * @return the text of line n without its terminator; lines start at 1
+     */
+    public String getLine(int n) {
+        return lines.get(n - 1).text;
+    }
+
+    /**
+     * @return the error that stopped lexing line n, or null if it has none
+     */
+    public String getError(int n) {
+        return lines.get(n - 1).error;
+    }
+
+    /**
+     * @return the source, its lines ended with newlines
+     */
+    public String getText() {
+        StringBuilder text = new StringBuilder();
+
+        for (int n = 0; n < lines.size(); n++) {
+            if (n > 0) {
+                text.append('\n');
+            }
+            text.append(lines.get(n).text);
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return the Tokens of line n
+     */
+    public List<Token> getTokens(int n) {
+        ArrayList<Token> tokens = new ArrayList<Token>();
+
+        for (Token token : lines.get(n - 1).tokens) {
+            tokens.add(token.atLine(n));
+        }
+        return tokens;
+    }
+
+    /**
+     * @return an ILexer handing out the tokens of the source as it stands;
+     *         it stops after the tokens of the first line with an error
+     */
+    public ILexer lexer() {
+        return new ILexer() {
+            private int line = 0, next = 0;
+
+            public Token nextToken() {
+                while (line < lines.size()) {
+                    Line current = lines.get(line);
+
+                    if (next < current.tokens.length) {
+                        return current.tokens[next++].atLine(line + 1);
+                    }
+                    if (current.error != null) {
+                        break;
+                    }
+                    line++;
+                    next = 0;
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * lex the lines of text; line terminators are "\n", "\r" or "\r\n"
+     */
+    private List<Line> lex(String text) {
+        ArrayList<Line> lexed = new ArrayList<Line>();
+        int start = 0;
+
+        for (int at = 0; at < text.length(); at++) {
+            char ch = text.charAt(at);
+
+            if (ch == '\n' || ch == '\r') {
+                lexed.add(lexLine(text.substring(start, at)));
+                if (ch == '\r' && at + 1 < text.length() && text.charAt(at + 1) == '\n') {
+                    at++;
+                }
+                start = at + 1;
+            }
+        }
+        lexed.add(lexLine(text.substring(start)));
+
+        return lexed;
+    }
+
+    private Line lexLine(String text) {
+        LineLexer lexer = new LineLexer(text.toCharArray(), symbolTable);
+        ArrayList<Token> tokens = new ArrayList<Token>();
+        Token token;
+
+        while ((token = lexer.nextToken()) != null) {
+            tokens.add(token);
+        }
+        return new Line(text, tokens.toArray(new Token[tokens.size()]), lexer.error);
+    }
+
+    /**
+     * a line's text, its tokens (numbered as line 1) and its error
+     */
+    private static class Line {
+        final String text;
+        final Token[] tokens;
+        final String error;
+
+        Line(String text, Token[] tokens, String error) {
+            this.text = text;
+            this.tokens = tokens;
+            this.error = error;
+        }
+    }
+
+    /**
+     * lexes one line, keeping its error rather than printing it; the line
+     * number is dropped from the error since the line may move
+     */
+    private static class LineLexer extends DfaLexer {
+        private static final String AT_LINE = " \n at line: ";
+
+        private String error;
+
+        LineLexer(char[] line, SymbolTable symbolTable) {
+            super(line, 0, line.length, 1, symbolTable);
+        }
+
+        @Override
+        protected void report(String error) {
+            int at = error.lastIndexOf(AT_LINE);
+
+            this.error = error.substring(0, at) + error.substring(error.indexOf(" Position: ", at));
+        }
+    }
+}
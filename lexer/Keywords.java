@@ -0,0 +1,110 @@
+package lexer;
+
+/**
+ * This file is automatically generated<br>
+ * it contains a perfect hash of the reserved words, keyed on the length
+ * and the first and last characters of a word, so a reserved word is
+ * recognized from a slice of the source without building a String or
+ * looking in the symbol table
+ */
+public class Keywords {
+    private static final int A = 2, B = 8, MASK = 31;
+    private static final int MIN_LENGTH = 2, MAX_LENGTH = 10;
+
+    private static final String[] words = new String[MASK + 1];
+    private static final Symbol[] symbols = new Symbol[MASK + 1];
+
+    static {
+        words[27] = "program";
+        symbols[27] = TokenType.tokens.get(Tokens.Program);
+        words[2] = "int";
+        symbols[2] = TokenType.tokens.get(Tokens.Int);
+        words[12] = "boolean";
+        symbols[12] = TokenType.tokens.get(Tokens.BOOLean);
+        words[18] = "if";
+        symbols[18] = TokenType.tokens.get(Tokens.If);
+        words[22] = "then";
+        symbols[22] = TokenType.tokens.get(Tokens.Then);
+        words[21] = "else";
+        symbols[21] = TokenType.tokens.get(Tokens.Else);
+        words[7] = "while";
+        symbols[7] = TokenType.tokens.get(Tokens.While);
+        words[14] = "function";
+        symbols[14] = TokenType.tokens.get(Tokens.Function);
+        words[10] = "return";
+        symbols[10] = TokenType.tokens.get(Tokens.Return);
+        words[11] = "string";
+        symbols[11] = TokenType.tokens.get(Tokens.StringType);
+        words[15] = "scientific";
+        symbols[15] = TokenType.tokens.get(Tokens.Scientific);
+        words[8] = "forall";
+        symbols[8] = TokenType.tokens.get(Tokens.Forall);
+        words[26] = "in";
+        symbols[26] = TokenType.tokens.get(Tokens.In);
+    }
+
+    /**
+     * @return the Symbol of the reserved word in buffer[start, start + length),
+     *         or null if the characters are not a reserved word
+     */
+    public static Symbol symbol(char[] buffer, int start, int length) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return null;
+        }
+
+        int slot = (length * A + buffer[start] * B + buffer[start + length - 1]) & MASK;
+        String word = words[slot];
+        if (word == null || word.length() != length) {
+            return null;
+        }
+        for (int i = 0; i < length; i++) {
+            if (word.charAt(i) != buffer[start + i]) {
+                return null;
+            }
+        }
+
+        return symbols[slot];
+    }
+
+    /**
+     * @return the Symbol of the reserved word in the ASCII bytes
+     *         buffer[start, start + length), or null if the bytes are not a
+     *         reserved word
+     */
+    public static Symbol symbol(byte[] buffer, int start, int length) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return null;
+        }
+
+        int slot = (length * A + buffer[start] * B + buffer[start + length - 1]) & MASK;
+        String word = words[slot];
+        if (word == null || word.length() != length) {
+            return null;
+        }
+        for (int i = 0; i < length; i++) {
+            if (word.charAt(i) != buffer[start + i]) {
+                return null;
+            }
+        }
+
+        return symbols[slot];
+    }
+
+    /**
+     * @return the Symbol of the reserved word id, or null if id is not one
+     */
+    public static Symbol symbol(CharSequence id) {
+        int length = id.length();
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return null;
+        }
+
+        int slot = (length * A + id.charAt(0) * B + id.charAt(length - 1)) & MASK;
+        String word = words[slot];
+        if (word == null || !word.contentEquals(id)) {
+            return null;
+        }
+
+        return symbols[slot];
+    }
+}
@@ -1,6 +1,7 @@
 package lexer;
 
 import java.io.FileNotFoundException;
+import java.util.List;
 import lexer.readers.IReader;
 import lexer.readers.SourceReader;
 import tests.ILexer;
@@ -19,10 +20,19 @@ public class Lexer implements ILexer {
     // next character to process
     private char ch;
     private IReader source;
+    // strings of this compilation
+    private SymbolTable symbolTable;
 
     // positions in line of current token
     private int startPosition, endPosition;
     private static int lineNumber;
+    // told of each token handed out
+    private TokenListener listener = TokenListener.NONE;
+    // if not null errors are added here and scanning carries on past them;
+    // else they are printed and scanning stops
+    private List<String> errors;
+    // set once an error is found in the token being scanned
+    private boolean tokenFailed;
 
     /**
      * Lexer constructor
@@ -30,25 +40,67 @@ public class Lexer implements ILexer {
      * @param sourceFile is the name of the File to read the program source from
      */
     public Lexer(String sourceFile) throws Exception {
-        // init token table
-        new TokenType();
-        source = new SourceReader(sourceFile);
-        ch = source.read();
+        this(new SourceReader(sourceFile));
     }
 
     public Lexer(IReader reader) throws Exception {
-        // init token table
-        new TokenType();
+        this(reader, new SymbolTable());
+    }
+
+    /**
+     * @param reader      supplies the program source
+     * @param symbolTable interns the strings of the program
+     */
+    public Lexer(IReader reader, SymbolTable symbolTable) throws Exception {
         this.source = reader;
+        this.symbolTable = symbolTable;
         ch = source.read();
     }
 
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    /**
+     * @param listener is told of each token from now on, e.g. a TokenTracer
+     */
+    public void setTokenListener(TokenListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @param errors if not null, collects the errors found from now on
+     *               and scanning carries on past them: an illegal character
+     *               is skipped and a malformed literal is still returned
+     */
+    public void collectErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
     public Token errorHandling() {
-        System.out.println(
-                "******** illegal character: " + ch + "< \n at line: " + source.getLineno() + " Position: "
-                        + source.getPosition());
+        String message = "******** illegal character: " + ch + "< \n at line: " + source.getLineno() + " Position: "
+                + source.getPosition();
+
+        if (errors != null) {
+            errors.add(message);
+            tokenFailed = true;
+            return null;
+        }
+        System.out.println(message);
         atEOF = true;
-        return nextToken();
+        return scanToken();
+    }
+
+    /**
+     * report an error in the number being scanned, at most once per token
+     *
+     * @return true if scanning has stopped, i.e. the error was not collected
+     */
+    private boolean literalFailed() {
+        if (!tokenFailed) {
+            errorHandling();
+        }
+        return errors == null;
     }
 
     /**
@@ -66,10 +118,10 @@ public class Lexer implements ILexer {
             return new Token(
                     startPosition,
                     endPosition,
-                    Symbol.symbol(id, Tokens.Identifier),
+                    symbolTable.symbol(id, Tokens.Identifier),
                     source.getLineno());
         } catch (Exception e) {
-            return nextToken();
+            return scanToken();
         }
     }
 
@@ -78,7 +130,7 @@ public class Lexer implements ILexer {
         return new Token(
                 startPosition,
                 endPosition,
-                Symbol.symbol(id, Tokens.In),
+                symbolTable.symbol(id, Tokens.In),
                 source.getLineno());
     }
 
@@ -86,16 +138,14 @@ public class Lexer implements ILexer {
         return new Token(
                 startPosition,
                 endPosition,
-                Symbol.symbol(id, Tokens.Forall),
+                symbolTable.symbol(id, Tokens.Forall),
                 source.getLineno());
     }
 
     /**
-     * number tokens are inserted in the symbol table; we don't convert the
-     * numeric strings to numbers until we load the bytecodes for interpreting;
-     * this ensures that any machine numeric dependencies are deferred
-     * until we actually run the program; i.e. the numeric constraints of the
-     * hardware used to compile the source program are not used
+     * number tokens are inserted in the symbol table and carry their value,
+     * decoded once here so later phases never parse numeric text; literals
+     * too large for the target's 32 bit ints are reported as errors
      * 
      * @param number        is the int String just scanned
      * @param startPosition is the column in the source file where the int begins
@@ -103,19 +153,54 @@ public class Lexer implements ILexer {
      * @return the int Token
      */
     public Token newNumberToken(String number, int startPosition, int endPosition, int lineNumber) {
+        long value = NumericLiterals.intValue(number);
+        // after an error the digits scanned so far are not worth a diagnostic
+        if (value == NumericLiterals.INT_OUT_OF_RANGE && !atEOF && !tokenFailed) {
+            return literalError("******** integer literal out of range: " + number + "<", startPosition);
+        }
+
         return new Token(
                 startPosition,
                 endPosition,
-                Symbol.symbol(number, Tokens.INTeger),
-                source.getLineno());
+                symbolTable.symbol(number, Tokens.INTeger),
+                source.getLineno(),
+                value);
     }
 
     public Token newScientificLitToken(String number, int startPosition, int endPosition, int lineNumber) {
-        return new Token(startPosition, endPosition, Symbol.symbol(number, Tokens.ScientificLit), source.getLineno());
+        double value = NumericLiterals.scientificValue(number);
+        if (tokenFailed) {
+            // the malformed literal is already reported; 0 keeps the
+            // later phases going
+            value = 0;
+        } else if (Double.isNaN(value) && !atEOF) {
+            return literalError("******** scientific literal out of range: " + number + "<", startPosition);
+        }
+
+        return new Token(startPosition, endPosition, symbolTable.symbol(number, Tokens.ScientificLit),
+                source.getLineno(), value);
+    }
+
+    /**
+     * report a literal that cannot be represented and stop scanning, or
+     * when collecting errors skip the literal
+     *
+     * @param startPosition is the column in the source file where the literal begins
+     */
+    private Token literalError(String message, int startPosition) {
+        message += " \n at line: " + source.getLineno() + " Position: " + startPosition;
+
+        if (errors != null) {
+            errors.add(message);
+            return scanToken();
+        }
+        System.out.println(message);
+        atEOF = true;
+        return scanToken();
     }
 
     public Token newStringLitToken(String number, int startPosition, int endPosition, int lineNumber) {
-        return new Token(startPosition, endPosition, Symbol.symbol(number, Tokens.StringLit), source.getLineno());
+        return new Token(startPosition, endPosition, symbolTable.symbol(number, Tokens.StringLit), source.getLineno());
     }
 
     /**
@@ -131,22 +216,26 @@ public class Lexer implements ILexer {
         // filter comments
         if (tokenString.equals("//")) {
             try {
-                int oldLine = source.getLineno();
-                do {
-                    ch = source.read();
-                } while (oldLine == source.getLineno());
+                source.skipToEndOfLine();
+                ch = source.read();
             } catch (Exception e) {
                 atEOF = true;
             }
 
-            return nextToken();
+            return scanToken();
         }
 
         // ensure it's a valid token
-        Symbol symbol = Symbol.symbol(tokenString, Tokens.BogusToken);
+        Symbol symbol = symbolTable.symbol(tokenString, Tokens.BogusToken);
 
         if (symbol == null) {
-            errorHandling();
+            if (errors == null) {
+                return errorHandling();
+            }
+            // skip the illegal character; ch is already the one after it
+            errors.add("******** illegal character: " + tokenString + "< \n at line: " + lineNumber + " Position: "
+                    + startPosition);
+            return scanToken();
         }
 
         return new Token(startPosition, endPosition, symbol, source.getLineno());
@@ -156,6 +245,15 @@ public class Lexer implements ILexer {
      * @return the next Token found in the source file
      */
     public Token nextToken() {
+        Token token = scanToken();
+
+        if (token != null) {
+            listener.token(token);
+        }
+        return token;
+    }
+
+    private Token scanToken() {
 
         // ch is always the next char to process
         if (atEOF) {
@@ -166,15 +264,16 @@ public class Lexer implements ILexer {
 
             return null;
         }
+        tokenFailed = false;
 
         try {
             // scan past whitespace
-            while (Character.isWhitespace(ch)) {
+            while (CharClass.isWhitespace(ch)) {
                 ch = source.read();
             }
         } catch (Exception e) {
             atEOF = true;
-            return nextToken();
+            return scanToken();
         }
 
         startPosition = source.getPosition();
@@ -187,15 +286,10 @@ public class Lexer implements ILexer {
             int tempLineNum = source.getLineno();
             boolean stringLit = true;
 
+            // concatenating all till closing quotation else error
             try {
                 endPosition++;
                 ch = source.read();
-            } catch (Exception e) {
-                errorHandling();
-            }
-
-            // concatenating all till closing quotation else error
-            try {
                 do {
                     if (tempLineNum != lineNumber) {
                         stringLit = false;
@@ -207,8 +301,12 @@ public class Lexer implements ILexer {
                     tempLineNum = source.getLineno();
                 } while (ch != '"' && stringLit == true);
             } catch (Exception e) {
-                System.out.println("***** Missing Closing Quotations *****");
-                errorHandling();
+                if (errors == null) {
+                    System.out.println("***** Missing Closing Quotations *****");
+                    return errorHandling();
+                }
+                errors.add("***** Missing Closing Quotations ***** \n at line: " + lineNumber + " Position: "
+                        + startPosition);
             }
             endPosition++;
             try {
@@ -220,7 +318,7 @@ public class Lexer implements ILexer {
             return newStringLitToken(string, startPosition, endPosition, source.getLineno());
         }
 
-        if (Character.isJavaIdentifierStart(ch)) {
+        if (CharClass.isIdentifierStart(ch)) {
             // return tokens for ids and reserved words
             String id = "";
 
@@ -229,22 +327,21 @@ public class Lexer implements ILexer {
                     endPosition++;
                     id += ch;
                     ch = source.read();
-                } while (Character.isJavaIdentifierPart(ch));
+                } while (CharClass.isIdentifierPart(ch));
             } catch (Exception e) {
                 atEOF = true;
             }
 
             // Determining Reserved Words
-            if (id.equals("in")) {
-                return newInToken(id, startPosition, endPosition, source.getLineno());
-            } else if (id.equals("forall")) {
-                return newForAllToken(id, startPosition, endPosition, source.getLineno());
+            Symbol reserved = Keywords.symbol(id);
+            if (reserved != null) {
+                return new Token(startPosition, endPosition, reserved, source.getLineno());
             } else {
                 return newIdToken(id, startPosition, endPosition, source.getLineno());
             }
         }
 
-        if (Character.isDigit(ch)) {
+        if (CharClass.isDigit(ch)) {
             // return number tokens
             String number = "";
             Boolean isScientificLit = false;
@@ -259,17 +356,19 @@ public class Lexer implements ILexer {
             }
             try {
                 // Branching to either number or ScientificLit
-                if (Character.isDigit(ch)) {
+                if (CharClass.isDigit(ch)) {
                     do {
                         endPosition++;
                         number += ch;
                         ch = source.read();
-                    } while (Character.isDigit(ch));
+                    } while (CharClass.isDigit(ch));
                     return newNumberToken(number, startPosition, endPosition, source.getLineno());
                 }
                 // ScientificLit
                 // "."
                 else if (ch == '.') {
+                    // from here on a malformed literal is still a ScientificLit
+                    isScientificLit = true;
                     endPosition++;
                     number += ch;
                     ch = source.read();
@@ -279,40 +378,43 @@ public class Lexer implements ILexer {
                         digits++;
                         endPosition++;
                         number += ch;
-                        if (digits < 1 || digits > 2) {
-                            errorHandling();
+                        if ((digits < 1 || digits > 2) && literalFailed()) {
+                            return null;
                         }
                         ch = source.read();
-                    } while (Character.isDigit(ch));
-                    // Must be followed by an e or E
-                    if (Character.toLowerCase(ch) != 'e') {
-                        errorHandling();
-                    } else {
-                        endPosition++;
-                        number += ch;
-                        ch = source.read();
-                    }
-                    // Next up either + or -
-                    if (ch != '+' && ch != '-') {
-                        errorHandling();
+                    } while (CharClass.isDigit(ch));
+                    // Must be followed by an e or E, then either + or -
+                    if ((ch | 0x20) != 'e') {
+                        if (literalFailed()) {
+                            return null;
+                        }
                     } else {
                         endPosition++;
                         number += ch;
                         ch = source.read();
-                        if (!(Character.isDigit(ch))) {
-                            errorHandling();
-                        }
-                        do {
+                        if (ch != '+' && ch != '-') {
+                            if (literalFailed()) {
+                                return null;
+                            }
+                        } else {
                             endPosition++;
                             number += ch;
                             ch = source.read();
-                            digits++;
-                        } while (Character.isDigit(ch));
-                        isScientificLit = true;
+                            if (!CharClass.isDigit(ch) && literalFailed()) {
+                                return null;
+                            }
+                            while (CharClass.isDigit(ch)) {
+                                endPosition++;
+                                number += ch;
+                                ch = source.read();
+                            }
+                        }
                     }
                 }
             } catch (Exception e) {
-                errorHandling();
+                if (literalFailed()) {
+                    return null;
+                }
             }
             // Return statements depending on the Token type
             if (isScientificLit) {
@@ -336,7 +438,7 @@ public class Lexer implements ILexer {
             // check if valid 2 char operator; if it's not in the symbol
             // table then don't insert it since we really have a one char
             // token
-            sym = Symbol.symbol(op, Tokens.BogusToken);
+            sym = symbolTable.symbol(op, Tokens.BogusToken);
             if (sym == null) {
                 // it must be a one char token
                 return makeToken(charOld, startPosition, endPosition, source.getLineno());
@@ -0,0 +1,110 @@
+package lexer;
+
+/**
+ * The NumberScanner class recognizes and decodes the numeric literals of
+ * the lexers that scan a buffer in place; a lexer reaches its buffer
+ * through charAt, so the one state machine serves both char[] and UTF-8
+ * byte[] sources<br>
+ * numbers are either integers or scientific literals:
+ * digits, or one digit '.' 1 or 2 digits ('e' | 'E') ('+' | '-') digits;
+ * as in Lexer, a number of several digits ends before any '.'
+ */
+abstract class NumberScanner {
+    // the literal found by the last scan: its kind, the offset just past
+    // it and its value
+    Tokens kind;
+    int end;
+    long longValue;
+    double doubleValue;
+    // why the last scan failed
+    String error;
+
+    /**
+     * @return the character at offset at; a byte is widened without its
+     *         sign, so anything outside of ASCII is neither a digit nor
+     *         part of an operator
+     */
+    protected abstract char charAt(int at);
+
+    /**
+     * @return the text of [start, end)
+     */
+    protected abstract String slice(int start, int end);
+
+    /**
+     * @return the value of the digits [start, end), or
+     *         NumericLiterals.INT_OUT_OF_RANGE
+     */
+    protected abstract long intValue(int start, int end);
+
+    /**
+     * scan the literal starting with the digit at start
+     *
+     * @return false if it is malformed or out of range, leaving the
+     *         reason in error
+     */
+    boolean scan(int start, int limit) {
+        end = skipDigits(start + 1, limit);
+
+        if (end == start + 1 && end + 1 < limit && charAt(end) == '.' && CharClass.isDigit(charAt(end + 1))) {
+            int fractionStart = ++end;
+            end = skipDigits(end, limit);
+
+            if (end - fractionStart > 2 || end >= limit || (charAt(end) | 0x20) != 'e') {
+                return illegal(start);
+            }
+            end++;
+            if (end >= limit || (charAt(end) != '+' && charAt(end) != '-')) {
+                return illegal(start);
+            }
+            end++;
+            if (end >= limit || !CharClass.isDigit(charAt(end))) {
+                return illegal(start);
+            }
+            end = skipDigits(end, limit);
+
+            return decode(Tokens.ScientificLit, start, end);
+        }
+
+        return decode(Tokens.INTeger, start, end);
+    }
+
+    /**
+     * decode the literal [start, end), already known to be well formed
+     *
+     * @param kind is either INTeger or ScientificLit
+     * @return false if its value cannot be represented, leaving the
+     *         reason in error
+     */
+    boolean decode(Tokens kind, int start, int end) {
+        this.kind = kind;
+        this.end = end;
+
+        if (kind == Tokens.INTeger) {
+            longValue = intValue(start, end);
+            if (longValue == NumericLiterals.INT_OUT_OF_RANGE) {
+                error = "******** integer literal out of range: " + slice(start, end) + "<";
+                return false;
+            }
+        } else {
+            doubleValue = NumericLiterals.scientificValue(slice(start, end));
+            if (Double.isNaN(doubleValue)) {
+                error = "******** scientific literal out of range: " + slice(start, end) + "<";
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean illegal(int start) {
+        error = "******** illegal scientific literal: " + slice(start, end) + "<";
+        return false;
+    }
+
+    private int skipDigits(int at, int limit) {
+        while (at < limit && CharClass.isDigit(charAt(at))) {
+            at++;
+        }
+        return at;
+    }
+}
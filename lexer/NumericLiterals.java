@@ -0,0 +1,86 @@
+package lexer;
+
+/**
+ * The NumericLiterals class decodes the text of INTeger and ScientificLit
+ * tokens into their values; the lexers decode each literal once, as it is
+ * scanned, and carry the value on the Token, so later phases never parse
+ * numeric text<br>
+ * Integer literals must fit in the 32 bit ints of the target machine;
+ * scientific literals must fit in a double without overflowing to infinity
+ * or underflowing to 0
+ */
+public class NumericLiterals {
+    // the value returned for literals out of range
+    public static final long INT_OUT_OF_RANGE = -1;
+
+    /**
+     * @return the value of the digits buffer[start, end), or INT_OUT_OF_RANGE
+     *         if it is larger than Integer.MAX_VALUE
+     */
+    public static long intValue(char[] buffer, int start, int end) {
+        long value = 0;
+
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (buffer[i] - '0');
+            if (value > Integer.MAX_VALUE) {
+                return INT_OUT_OF_RANGE;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return the value of the ASCII digits buffer[start, end), or
+     *         INT_OUT_OF_RANGE if it is larger than Integer.MAX_VALUE
+     */
+    public static long intValue(byte[] buffer, int start, int end) {
+        long value = 0;
+
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (buffer[i] - '0');
+            if (value > Integer.MAX_VALUE) {
+                return INT_OUT_OF_RANGE;
+            }
+        }
+        return value;
+    }
+
+    public static long intValue(CharSequence digits) {
+        long value = 0;
+
+        for (int i = 0; i < digits.length(); i++) {
+            value = value * 10 + (digits.charAt(i) - '0');
+            if (value > Integer.MAX_VALUE) {
+                return INT_OUT_OF_RANGE;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @param literal is the text of a scientific literal, e.g. 1.25e+3
+     * @return its value, or NaN if it is too large or too small for a double
+     *         (or is not a scientific literal)
+     */
+    public static double scientificValue(String literal) {
+        double value;
+        try {
+            value = Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+
+        if (Double.isInfinite(value)) {
+            return Double.NaN;
+        }
+        if (value == 0) {
+            // only a mantissa of zeros may be 0
+            for (int i = 0; i < literal.length() && Character.toLowerCase(literal.charAt(i)) != 'e'; i++) {
+                if (literal.charAt(i) >= '1' && literal.charAt(i) <= '9') {
+                    return Double.NaN;
+                }
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,39 @@
+package lexer;
+
+/**
+ * The Operators class indexes the one and two character operators (and
+ * the comment start) of the language by their ASCII codes, for the lexers
+ * that recognize them straight from their buffer
+ */
+class Operators {
+    // the operators, indexed by their character and by (first << 7) | second
+    private static final Symbol[] operators = new Symbol[128];
+    private static final Symbol[] operatorPairs = new Symbol[1 << 14];
+
+    static {
+        for (Symbol symbol : TokenType.tokens.values()) {
+            String s = symbol.toString();
+
+            if (s.length() == 1 && s.charAt(0) < 128) {
+                operators[s.charAt(0)] = symbol;
+            } else if (s.length() == 2 && s.charAt(0) < 128 && s.charAt(1) < 128) {
+                operatorPairs[(s.charAt(0) << 7) | s.charAt(1)] = symbol;
+            }
+        }
+    }
+
+    /**
+     * @return the operator ch, or null; ch must be below 128
+     */
+    static Symbol single(int ch) {
+        return operators[ch];
+    }
+
+    /**
+     * @return the operator made of first and second, or null; both must be
+     *         below 128
+     */
+    static Symbol pair(int first, int second) {
+        return operatorPairs[(first << 7) | second];
+    }
+}
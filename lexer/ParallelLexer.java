@@ -0,0 +1,151 @@
+package lexer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The ParallelLexer class lexes a large source program on a ForkJoinPool;
+ * no token spans lines (strings and comments end with their line), so
+ * the source is cut into chunks at line boundaries, each chunk is lexed,
+ * numbering its lines from the line it starts on, into a TokenBuffer of
+ * its own, and the buffers are stitched together in order<br>
+ * Each chunk interns into a SymbolTable of its own; stitching interns
+ * their symbols into the shared table in source order, and stops at the
+ * first chunk with an error, reporting just that error, so the result is
+ * the same TokenBuffer that lexing the whole source sequentially produces
+ */
+public class ParallelLexer {
+    // chunks smaller than this are not worth a task of their own
+    public static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    public static TokenBuffer lex(String sourceFile) throws IOException {
+        return lex(BufferLexer.readSource(sourceFile));
+    }
+
+    public static TokenBuffer lex(char[] source) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, source.length / (pool.getParallelism() * 4));
+
+        return lex(source, new SymbolTable(), pool, chunkSize);
+    }
+
+    /**
+     * @param chunkSize is the number of characters each task lexes; chunks
+     *                  are extended to the start of the next line
+     */
+    public static TokenBuffer lex(char[] source, SymbolTable symbolTable, ForkJoinPool pool, int chunkSize) {
+        final ArrayList<Chunk> chunks = new ArrayList<Chunk>();
+        int line = 1;
+
+        for (int from = 0; from < source.length;) {
+            int to = Math.min(source.length, from + chunkSize);
+
+            while (to < source.length && !isLineStart(source, to)) {
+                to++;
+            }
+            chunks.add(new Chunk(source, from, to, line));
+            line += countLines(source, from, to);
+            from = to;
+        }
+
+        pool.invoke(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            protected void compute() {
+                invokeAll(chunks);
+            }
+        });
+
+        TokenBuffer tokens = new TokenBuffer(source, symbolTable);
+
+        for (Chunk chunk : chunks) {
+            tokens.append(chunk.tokens, intern(chunk.symbolTable, symbolTable));
+            if (chunk.lexer.failed) {
+                // sequential lexing would have stopped here
+                System.out.println(chunk.lexer.error);
+                break;
+            }
+        }
+
+        return tokens;
+    }
+
+    /**
+     * intern the symbols of a chunk's table into symbolTable in the order
+     * the chunk first met them
+     *
+     * @return the ids in symbolTable of the chunk's own symbols, indexed by
+     *         their ids less the size of the core
+     */
+    private static int[] intern(SymbolTable chunkTable, SymbolTable symbolTable) {
+        int coreSize = chunkTable.coreSize();
+        int[] ids = new int[chunkTable.size() - coreSize];
+
+        for (int i = 0; i < ids.length; i++) {
+            Symbol s = chunkTable.symbol(coreSize + i);
+            ids[i] = symbolTable.symbol(s.toString(), s.getKind()).getId();
+        }
+        return ids;
+    }
+
+    private static boolean isLineStart(char[] source, int at) {
+        char prior = source[at - 1];
+
+        return prior == '\n' || (prior == '\r' && source[at] != '\n');
+    }
+
+    /**
+     * @return the number of line terminators ("\n", "\r" or "\r\n") in
+     *         source[from, to)
+     */
+    private static int countLines(char[] source, int from, int to) {
+        int lines = 0;
+
+        for (int at = from; at < to; at++) {
+            if (source[at] == '\n' || (source[at] == '\r' && (at + 1 == source.length || source[at + 1] != '\n'))) {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * lexes the lines in source[from, to), the first of them numbered
+     * firstLine, into a symbol table of its own
+     */
+    private static class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SymbolTable symbolTable = new SymbolTable();
+        private final ChunkLexer lexer;
+        private final TokenBuffer tokens;
+
+        Chunk(char[] source, int from, int to, int firstLine) {
+            lexer = new ChunkLexer(source, from, to, firstLine, symbolTable);
+            tokens = new TokenBuffer(source, symbolTable, (to - from) / 4);
+        }
+
+        protected void compute() {
+            tokens.addAll(lexer);
+        }
+    }
+
+    /**
+     * keeps the error that stopped it rather than printing it; only the
+     * first error in the source is reported
+     */
+    private static class ChunkLexer extends DfaLexer {
+        private String error;
+
+        ChunkLexer(char[] source, int from, int to, int firstLine, SymbolTable symbolTable) {
+            super(source, from, to, firstLine, symbolTable);
+        }
+
+        @Override
+        protected void report(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package lexer;
+
+import java.lang.ref.Cleaner;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import tests.ILexer;
+
+/**
+ * The PipelinedLexer class runs another lexer on a thread of its own so
+ * that lexing overlaps parsing; the lexer's tokens are handed over in
+ * batches through a bounded ring with a single producer (the lexing
+ * thread) and a single consumer (whoever calls nextToken(), e.g. the
+ * Parser)<br>
+ * The tokens are the same, in the same order, as those of the lexer it
+ * runs; exceptions thrown while lexing are rethrown by nextToken()<br>
+ * A consumer that may stop before the last token, e.g. a Parser that
+ * throws a SyntaxError, should close the lexer, as in
+ *
+ * <pre>
+ * try (PipelinedLexer lexer = new PipelinedLexer(new Lexer(sourceFile))) {
+ *     new Parser(lexer).execute();
+ * }
+ * </pre>
+ *
+ * one that is dropped without being closed is closed once it is garbage
+ * collected, so the lexing thread never waits on it forever
+ */
+public class PipelinedLexer implements ILexer, AutoCloseable {
+    public static final int BATCH_SIZE = 256;
+    public static final int RING_SIZE = 64;
+
+    private static final Cleaner cleaner = Cleaner.create();
+
+    private final Ring ring;
+    private final Cleaner.Cleanable cleanable;
+
+    // the batch being handed out and the index of its next token
+    private Token[] batch = new Token[0];
+    private int next = 0;
+
+    public PipelinedLexer(ILexer source) {
+        this(source, BATCH_SIZE, RING_SIZE);
+    }
+
+    /**
+     * start lexing source
+     *
+     * @param batchSize is the most tokens published at once
+     * @param ringSize  is the number of batches lexing may run ahead of the
+     *                  consumer; it must be a power of 2
+     */
+    public PipelinedLexer(ILexer source, int batchSize, int ringSize) {
+        ring = new Ring(source, batchSize, ringSize);
+        // the thread and the cleaner only refer to the ring, so this
+        // lexer can still be collected when its consumer drops it
+        cleanable = cleaner.register(this, ring::close);
+
+        Thread producer = new Thread(ring::produce, "lexer");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    /**
+     * @return the next Token of the lexer being run
+     */
+    public Token nextToken() {
+        if (next == batch.length) {
+            batch = ring.take();
+            next = 0;
+            if (batch == null) {
+                batch = new Token[0];
+                return null;
+            }
+        }
+
+        return batch[next++];
+    }
+
+    /**
+     * stop lexing; tokens not yet taken are dropped
+     */
+    public void close() {
+        cleanable.clean();
+    }
+
+    /**
+     * @return true once the lexing thread has stopped
+     */
+    public boolean isDone() {
+        return ring.done;
+    }
+
+    /**
+     * the state shared by the lexing thread and the consumer
+     */
+    private static class Ring {
+        private final ILexer source;
+        private final int batchSize;
+        // published batches; a batch is published when it is full or when
+        // the consumer has taken all the others, so it need not wait for
+        // a full one
+        private final Token[][] batches;
+        private final int mask;
+        // head is the next batch to take, tail the next one to publish
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+        private volatile boolean done = false;
+        private volatile boolean closed = false;
+        private volatile RuntimeException failure;
+
+        Ring(ILexer source, int batchSize, int ringSize) {
+            this.source = source;
+            this.batchSize = batchSize;
+            batches = new Token[ringSize][];
+            mask = ringSize - 1;
+        }
+
+        void close() {
+            closed = true;
+        }
+
+        void produce() {
+            try {
+                Token[] b = new Token[batchSize];
+                int n = 0;
+                Token token;
+
+                while (!closed && (token = source.nextToken()) != null) {
+                    b[n++] = token;
+                    if (n == batchSize) {
+                        publish(b);
+                        b = new Token[batchSize];
+                        n = 0;
+                    } else if (tail.get() == head.get()) {
+                        // the consumer is waiting
+                        publish(Arrays.copyOf(b, n));
+                        n = 0;
+                    }
+                }
+                if (n > 0) {
+                    publish(Arrays.copyOf(b, n));
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                done = true;
+            }
+        }
+
+        private void publish(Token[] b) {
+            long t = tail.get();
+
+            for (int spins = 0; t - head.get() > mask; spins++) {
+                if (closed) {
+                    return;
+                }
+                pause(spins);
+            }
+            batches[(int) t & mask] = b;
+            // the ordered write publishes the slot along with the new tail
+            tail.lazySet(t + 1);
+        }
+
+        /**
+         * @return the next batch, or null once the lexer has finished
+         */
+        Token[] take() {
+            long h = head.get();
+
+            for (int spins = 0; tail.get() == h; spins++) {
+                if (done && tail.get() == h) {
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    return null;
+                }
+                pause(spins);
+            }
+
+            int slot = (int) h & mask;
+            Token[] b = batches[slot];
+            batches[slot] = null;
+            head.lazySet(h + 1);
+
+            return b;
+        }
+    }
+
+    /**
+     * wait for the other thread: spin briefly, then give up the processor
+     */
+    private static void pause(int spins) {
+        if (spins < 100) {
+            Thread.onSpinWait();
+        } else if (spins < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(20000);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package lexer;
+
+/**
+ * The ScalarCharScanner class looks at one character at a time; it is used
+ * when the Vector API is not available and for the tail of a run that is
+ * shorter than a vector
+ */
+public class ScalarCharScanner implements CharScanner {
+
+    public int skipBlanks(char[] buffer, int from, int to) {
+        while (from < to && (buffer[from] == ' ' || buffer[from] == '\t')) {
+            from++;
+        }
+        return from;
+    }
+
+    public int lineEnd(char[] buffer, int from, int to) {
+        while (from < to && buffer[from] != '\n' && buffer[from] != '\r') {
+            from++;
+        }
+        return from;
+    }
+
+    public int identifierEnd(char[] buffer, int from, int to) {
+        while (from < to && isIdentifierPart(buffer[from])) {
+            from++;
+        }
+        return from;
+    }
+
+    private static boolean isIdentifierPart(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')
+                || ch == '_' || ch == '$';
+    }
+}
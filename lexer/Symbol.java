@@ -3,20 +3,26 @@ package lexer;
 /**
  * The Symbol class is used to store all user strings along with
  * an indication of the kind of strings they are; e.g. the id "abc" will
- * store the "abc" in name and Sym.Tokens.Identifier in kind
+ * store the "abc" in name and Sym.Tokens.Identifier in kind<br>
+ * Symbols are interned by a SymbolTable
  */
 public class Symbol {
     private String name;
     // token kind of symbol
     private Tokens kind;
+    // symbols are numbered by their table in the order they are created
+    private int id;
 
-    private Symbol(String name, Tokens kind) {
+    Symbol(String name, Tokens kind, int id) {
         this.name = name;
         this.kind = kind;
+        this.id = id;
     }
 
-    // symbols contains all strings in the source program
-    private static java.util.HashMap<String, Symbol> symbols = new java.util.HashMap<String, Symbol>();
+    // the table used by callers that do not belong to a compilation
+    private static class Shared {
+        static final SymbolTable table = new SymbolTable();
+    }
 
     public String toString() {
         return name;
@@ -26,21 +32,17 @@ public class Symbol {
         return kind;
     }
 
+    public int getId() {
+        return id;
+    }
+
     /**
-     * Return the unique symbol associated with a string.
+     * Return the unique symbol associated with a string in a table shared
+     * by everything outside of a compilation; lexers intern their strings
+     * in their own SymbolTable instead.
      * Repeated calls to <tt>symbol("abc")</tt> will return the same Symbol.
      */
     public static Symbol symbol(String newTokenString, Tokens kind) {
-        Symbol s = symbols.get(newTokenString);
-        if (s == null) {
-            if (kind == Tokens.BogusToken) {
-                // bogus string so don't enter into symbols
-                return null;
-            }
-            s = new Symbol(newTokenString, kind);
-            symbols.put(newTokenString, s);
-        }
-
-        return s;
+        return Shared.table.symbol(newTokenString, kind);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package lexer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The SymbolCache class interns slices of one lexer's source buffer; it
+ * sits in front of the (shared, thread safe) SymbolTable so a string seen
+ * before is found from the slice itself, without building a String or
+ * looking in the table<br>
+ * A cache belongs to a single lexer and is not thread safe
+ */
+class SymbolCache {
+    private final SymbolTable symbolTable;
+    // open addressing on the hash of the slice
+    private Symbol[] symbols = new Symbol[1 << 10];
+    private int[] hashes = new int[1 << 10];
+    private int count = 0;
+
+    SymbolCache(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    /**
+     * @return the Symbol for buffer[start, end), entering it in the symbol
+     *         table as kind if it is new
+     */
+    Symbol symbol(char[] buffer, int start, int end, Tokens kind) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+
+        int mask = symbols.length - 1;
+        Symbol s;
+        for (int slot = spread(hash) & mask; (s = symbols[slot]) != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && matches(s.toString(), buffer, start, end)) {
+                return s;
+            }
+        }
+
+        s = symbolTable.symbol(new String(buffer, start, end - start), kind);
+        add(hash, s);
+        return s;
+    }
+
+    /**
+     * @return the Symbol for the ASCII bytes buffer[start, end), entering it
+     *         in the symbol table as kind if it is new
+     */
+    Symbol symbol(byte[] buffer, int start, int end, Tokens kind) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+
+        int mask = symbols.length - 1;
+        Symbol s;
+        for (int slot = spread(hash) & mask; (s = symbols[slot]) != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && matches(s.toString(), buffer, start, end)) {
+                return s;
+            }
+        }
+
+        s = symbolTable.symbol(new String(buffer, start, end - start, StandardCharsets.ISO_8859_1), kind);
+        add(hash, s);
+        return s;
+    }
+
+    private static boolean matches(String name, char[] buffer, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != buffer[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String name, byte[] buffer, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != buffer[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * enter s, doubling the table once it is half full
+     */
+    private void add(int hash, Symbol s) {
+        if (++count * 2 > symbols.length) {
+            Symbol[] oldSymbols = symbols;
+            int[] oldHashes = hashes;
+
+            symbols = new Symbol[oldSymbols.length * 2];
+            hashes = new int[oldSymbols.length * 2];
+            for (int i = 0; i < oldSymbols.length; i++) {
+                if (oldSymbols[i] != null) {
+                    put(oldHashes[i], oldSymbols[i]);
+                }
+            }
+        }
+        put(hash, s);
+    }
+
+    private void put(int hash, Symbol s) {
+        int mask = symbols.length - 1;
+        int slot = spread(hash) & mask;
+
+        while (symbols[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        symbols[slot] = s;
+        hashes[slot] = hash;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,115 @@
+package lexer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The SymbolTable class interns the strings of one compilation; each
+ * compilation (lexer) owns its own table, so the symbols of a program are
+ * released along with it<br>
+ * The reserved words, operators and token placeholders of TokenType form
+ * a core that is built once and shared, read only, by every table; their
+ * Symbols are the same objects in all tables<br>
+ * A table may be used from several threads at once (e.g. when lexing in
+ * parallel); repeated lookups of a string in one table return the same
+ * Symbol
+ */
+public class SymbolTable {
+    // the core, indexed by name and by id; fixed once the class is
+    // initialized, so any thread may read it without a lock
+    private static final Map<String, Symbol> core;
+    private static final Symbol[] coreById;
+
+    static {
+        HashMap<String, Symbol> names = new HashMap<String, Symbol>();
+        Symbol[] ids = new Symbol[TokenType.tokens.size()];
+
+        for (Symbol s : TokenType.tokens.values()) {
+            names.put(s.toString(), s);
+            ids[s.getId()] = s;
+        }
+        core = Collections.unmodifiableMap(names);
+        coreById = ids;
+    }
+
+    private final ConcurrentHashMap<String, Symbol> symbols = new ConcurrentHashMap<String, Symbol>();
+    // byId[n - coreSize] is the symbol numbered n; written under the lock,
+    // the volatile write publishes new entries to other threads
+    private volatile Symbol[] byId = new Symbol[64];
+    private int count = 0;
+    private final int coreSize = coreById.length;
+
+    public SymbolTable() {
+    }
+
+    /**
+     * Return the unique symbol associated with a string.
+     * Repeated calls to <tt>symbol("abc")</tt> will return the same Symbol.
+     *
+     * @param kind is the kind of a new symbol; BogusToken only looks the
+     *             string up, returning null if it is not in the table
+     */
+    public Symbol symbol(String name, Tokens kind) {
+        Symbol s = core.get(name);
+        if (s != null) {
+            return s;
+        }
+
+        s = symbols.get(name);
+        if (s == null) {
+            if (kind == Tokens.BogusToken) {
+                // bogus string so don't enter into symbols
+                return null;
+            }
+            s = add(name, kind);
+        }
+
+        return s;
+    }
+
+    private synchronized Symbol add(String name, Tokens kind) {
+        Symbol s = symbols.get(name);
+
+        if (s == null) {
+            Symbol[] ids = byId;
+
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            s = new Symbol(name, kind, coreSize + count);
+            ids[count++] = s;
+            byId = ids;
+            symbols.put(name, s);
+        }
+
+        return s;
+    }
+
+    /**
+     * @return the symbol numbered id in this table; see Symbol.getId()
+     */
+    public Symbol symbol(int id) {
+        if (id < coreSize) {
+            return coreById[id];
+        }
+        return byId[id - coreSize];
+    }
+
+    /**
+     * @return the number of symbols in the core; symbols numbered from here
+     *         on are this table's own
+     */
+    int coreSize() {
+        return coreSize;
+    }
+
+    /**
+     * @return the number of symbols in this table, including the core
+     */
+    public int size() {
+        return coreSize + symbols.size();
+    }
+}
@@ -6,11 +6,14 @@ package lexer;
  *  1. The Symbol that describes the characters in the token
  *  2. The starting column in the source file of the token and
  *  3. The ending column in the source file of the token
+ *  4. For INTeger and ScientificLit tokens, the value of the literal
  * </pre>
  */
 public class Token {
     private int leftPosition, rightPosition, lineNumber;
     private Symbol symbol;
+    private long longValue;
+    private double doubleValue;
 
     /**
      * Create a new Token based on the given Symbol
@@ -25,6 +28,37 @@ public class Token {
         this.lineNumber = lineNumber;
     }
 
+    /**
+     * Create a new INTeger Token
+     *
+     * @param longValue is the value of the integer literal
+     */
+    public Token(int leftPosition, int rightPosition, Symbol symbol, int lineNumber, long longValue) {
+        this(leftPosition, rightPosition, symbol, lineNumber);
+        this.longValue = longValue;
+    }
+
+    /**
+     * Create a new ScientificLit Token
+     *
+     * @param doubleValue is the value of the scientific literal
+     */
+    public Token(int leftPosition, int rightPosition, Symbol symbol, int lineNumber, double doubleValue) {
+        this(leftPosition, rightPosition, symbol, lineNumber);
+        this.doubleValue = doubleValue;
+    }
+
+    /**
+     * @return a copy of this Token, value included, on another line
+     */
+    public Token atLine(int lineNumber) {
+        Token token = new Token(leftPosition, rightPosition, symbol, lineNumber);
+        token.longValue = longValue;
+        token.doubleValue = doubleValue;
+
+        return token;
+    }
+
     public Symbol getSymbol() {
         return symbol;
     }
@@ -36,6 +70,20 @@ public class Token {
         return printStatement;
     }
 
+    /**
+     * @return the value of an INTeger token
+     */
+    public long getLongValue() {
+        return longValue;
+    }
+
+    /**
+     * @return the value of a ScientificLit token
+     */
+    public double getDoubleValue() {
+        return doubleValue;
+    }
+
     public int getLineNumber() {
         return lineNumber;
     }
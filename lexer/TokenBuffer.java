@@ -0,0 +1,450 @@
+package lexer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import tests.ILexer;
+
+/**
+ * The TokenBuffer class holds every token of a source program in parallel
+ * arrays (kind, start and end offsets in the source buffer, line and
+ * symbol id) instead of as Token objects; tokens can be looked at in any
+ * order, and Tokens are only built when a consumer asks for them through
+ * lexer()<br>
+ * The column positions reported by Token are recovered from the offset
+ * of the start of each line
+ */
+public class TokenBuffer {
+    private static final Tokens[] kindValues = Tokens.values();
+
+    private char[] source;
+    // the table numbering the symbols of the tokens
+    private SymbolTable symbolTable;
+    private int size = 0;
+    private byte[] kinds;
+    private int[] starts, ends, lines, symbolIds;
+    // the values of literals; for ScientificLit, the bits of the double
+    private long[] values;
+    // lineStarts[n] is the source offset of the first character of line n
+    private int[] lineStarts;
+
+    public TokenBuffer(char[] source, SymbolTable symbolTable) {
+        // a rough guess: one token for every 4 characters of source
+        this(source, symbolTable, source.length / 4);
+    }
+
+    /**
+     * @param capacity is the number of tokens to make room for initially
+     */
+    public TokenBuffer(char[] source, SymbolTable symbolTable, int capacity) {
+        this.source = source;
+        this.symbolTable = symbolTable;
+        capacity = Math.max(16, capacity);
+
+        kinds = new byte[capacity];
+        starts = new int[capacity];
+        ends = new int[capacity];
+        lines = new int[capacity];
+        symbolIds = new int[capacity];
+        values = new long[capacity];
+        lineStarts = new int[16];
+    }
+
+    /**
+     * lex an entire source file
+     *
+     * @param sourceFile is the name of the File to read the program source from
+     * @return the buffer holding all of its tokens
+     */
+    public static TokenBuffer lex(String sourceFile) throws IOException {
+        return lex(BufferLexer.readSource(sourceFile));
+    }
+
+    public static TokenBuffer lex(char[] source) {
+        return lex(source, new SymbolTable());
+    }
+
+    public static TokenBuffer lex(char[] source, SymbolTable symbolTable) {
+        TokenBuffer tokens = new TokenBuffer(source, symbolTable);
+        tokens.addAll(new DfaLexer(source, 0, source.length, 1, symbolTable));
+
+        return tokens;
+    }
+
+    /**
+     * append every token the lexer finds; the lexer must scan this
+     * buffer's source and intern into this buffer's symbol table
+     */
+    public void addAll(BufferLexer lexer) {
+        while (lexer.scan()) {
+            long value = lexer.kind == Tokens.ScientificLit
+                    ? Double.doubleToRawLongBits(lexer.doubleValue)
+                    : lexer.longValue;
+
+            add(lexer.kind, lexer.tokenStart, lexer.tokenEnd, lexer.tokenLine, lexer.tokenLineStart,
+                    lexer.symbol, value);
+        }
+    }
+
+    /**
+     * append one token
+     *
+     * @param start     is the source offset of the token's first character
+     * @param end       is the source offset just past its last character
+     * @param lineStart is the source offset of the first character of line
+     * @param value     is the value of an INTeger, or the bits
+     *                  (Double.doubleToRawLongBits) of a ScientificLit
+     */
+    public void add(Tokens kind, int start, int end, int line, int lineStart, Symbol symbol, long value) {
+        ensureCapacity(size + 1, line);
+
+        kinds[size] = (byte) kind.ordinal();
+        starts[size] = start;
+        ends[size] = end;
+        lines[size] = line;
+        symbolIds[size] = symbol.getId();
+        values[size] = value;
+        lineStarts[line] = lineStart;
+        size++;
+    }
+
+    /**
+     * append every token of other, a buffer over the same source and lines
+     * but with a symbol table of its own
+     *
+     * @param renumber maps the id of each of other's own symbols, less the
+     *                 size of the core, to the id of the same string in
+     *                 this buffer's table; core symbols keep their ids
+     */
+    public void append(TokenBuffer other, int[] renumber) {
+        int lastLine = other.size == 0 ? 0 : other.lines[other.size - 1];
+        int coreSize = other.symbolTable.coreSize();
+        ensureCapacity(size + other.size, lastLine);
+
+        System.arraycopy(other.kinds, 0, kinds, size, other.size);
+        System.arraycopy(other.starts, 0, starts, size, other.size);
+        System.arraycopy(other.ends, 0, ends, size, other.size);
+        System.arraycopy(other.lines, 0, lines, size, other.size);
+        System.arraycopy(other.values, 0, values, size, other.size);
+        for (int i = 0; i < other.size; i++) {
+            int id = other.symbolIds[i], line = other.lines[i];
+
+            symbolIds[size + i] = id < coreSize ? id : renumber[id - coreSize];
+            lineStarts[line] = other.lineStarts[line];
+        }
+        size += other.size;
+    }
+
+    private void ensureCapacity(int tokens, int line) {
+        if (tokens > kinds.length) {
+            int capacity = Math.max(tokens, kinds.length * 2);
+
+            kinds = Arrays.copyOf(kinds, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+            symbolIds = Arrays.copyOf(symbolIds, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        if (line >= lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, Math.max(line + 1, lineStarts.length * 2));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the source the tokens were lexed from; null for tokens read
+     *         back with read()
+     */
+    public char[] getSource() {
+        return source;
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    public Tokens kind(int i) {
+        return kindValues[kinds[i]];
+    }
+
+    public int start(int i) {
+        return starts[i];
+    }
+
+    public int end(int i) {
+        return ends[i];
+    }
+
+    public int line(int i) {
+        return lines[i];
+    }
+
+    public Symbol symbol(int i) {
+        return symbolTable.symbol(symbolIds[i]);
+    }
+
+    /**
+     * @return the value of token i, an INTeger
+     */
+    public long longValue(int i) {
+        return values[i];
+    }
+
+    /**
+     * @return the value of token i, a ScientificLit
+     */
+    public double doubleValue(int i) {
+        return Double.longBitsToDouble(values[i]);
+    }
+
+    /**
+     * @return the column in the source line where token i begins
+     */
+    public int leftPosition(int i) {
+        return starts[i] - lineStarts[lines[i]];
+    }
+
+    /**
+     * @return the column in the source line where token i ends
+     */
+    public int rightPosition(int i) {
+        return ends[i] - lineStarts[lines[i]] - 1;
+    }
+
+    public Token token(int i) {
+        switch (kind(i)) {
+            case INTeger:
+                return new Token(leftPosition(i), rightPosition(i), symbol(i), lines[i], longValue(i));
+            case ScientificLit:
+                return new Token(leftPosition(i), rightPosition(i), symbol(i), lines[i], doubleValue(i));
+            default:
+                return new Token(leftPosition(i), rightPosition(i), symbol(i), lines[i]);
+        }
+    }
+
+    /**
+     * write the tokens, along with the symbols of the table beyond its core,
+     * in a compact binary form: offsets, lengths and lines are written as
+     * varints relative to the token before
+     */
+    public void write(DataOutputStream out) throws IOException {
+        int coreSize = symbolTable.coreSize(), symbolCount = symbolTable.size();
+
+        writeVarInt(out, symbolCount - coreSize);
+        for (int id = coreSize; id < symbolCount; id++) {
+            Symbol s = symbolTable.symbol(id);
+            byte[] name = s.toString().getBytes(StandardCharsets.UTF_8);
+
+            out.writeByte(s.getKind().ordinal());
+            writeVarInt(out, name.length);
+            out.write(name);
+        }
+
+        writeVarInt(out, size);
+        int priorEnd = 0, priorLine = 0;
+        for (int i = 0; i < size; i++) {
+            out.writeByte(kinds[i]);
+            writeVarInt(out, starts[i] - priorEnd);
+            writeVarInt(out, ends[i] - starts[i]);
+            writeVarInt(out, lines[i] - priorLine);
+            if (lines[i] != priorLine) {
+                writeVarInt(out, starts[i] - lineStarts[lines[i]]);
+            }
+            writeVarInt(out, symbolIds[i]);
+            if (kinds[i] == Tokens.INTeger.ordinal() || kinds[i] == Tokens.ScientificLit.ordinal()) {
+                out.writeLong(values[i]);
+            }
+            priorEnd = ends[i];
+            priorLine = lines[i];
+        }
+    }
+
+    /**
+     * read tokens written by write() into a new buffer with a new symbol
+     * table; the buffer has no source
+     *
+     * @param length is the number of bytes left in, which bounds the counts
+     *               read so that a damaged file is an IOException rather
+     *               than a huge allocation
+     */
+    public static TokenBuffer read(DataInputStream in, long length) throws IOException {
+        SymbolTable symbolTable = new SymbolTable();
+        int coreSize = symbolTable.coreSize();
+
+        // a symbol takes at least 2 bytes, a token at least 5
+        int symbolCount = readVarInt(in);
+        if (symbolCount < 0 || symbolCount > length / 2) {
+            throw new IOException("bad symbol count " + symbolCount);
+        }
+        for (int i = 0; i < symbolCount; i++) {
+            Tokens kind = readKind(in);
+            int nameLength = readVarInt(in);
+            if (nameLength < 0 || nameLength > length) {
+                throw new IOException("bad symbol length " + nameLength);
+            }
+            byte[] name = new byte[nameLength];
+
+            in.readFully(name);
+            if (symbolTable.symbol(new String(name, StandardCharsets.UTF_8), kind).getId() != coreSize + i) {
+                throw new IOException("symbols out of order");
+            }
+        }
+
+        int count = readVarInt(in);
+        if (count < 0 || count > length / 5) {
+            throw new IOException("bad token count " + count);
+        }
+        TokenBuffer tokens = new TokenBuffer(null, symbolTable, count);
+        int priorEnd = 0, priorLine = 0;
+        for (int i = 0; i < count; i++) {
+            byte kind = (byte) readKind(in).ordinal();
+            int start = priorEnd + readVarInt(in);
+            int end = start + readVarInt(in);
+            int line = priorLine + readVarInt(in);
+
+            if (line != priorLine) {
+                int lineStart = start - readVarInt(in);
+                // line n starts at least n - 1 characters in
+                if (line < priorLine || lineStart < 0 || line > lineStart + 1) {
+                    throw new IOException("bad line " + line);
+                }
+                tokens.ensureCapacity(i + 1, line);
+                tokens.lineStarts[line] = lineStart;
+            } else {
+                tokens.ensureCapacity(i + 1, line);
+            }
+            tokens.kinds[i] = kind;
+            tokens.starts[i] = start;
+            tokens.ends[i] = end;
+            tokens.lines[i] = line;
+            tokens.symbolIds[i] = readVarInt(in);
+            if (tokens.symbolIds[i] < 0 || tokens.symbolIds[i] >= symbolTable.size()) {
+                throw new IOException("bad symbol id " + tokens.symbolIds[i]);
+            }
+            if (kind == Tokens.INTeger.ordinal() || kind == Tokens.ScientificLit.ordinal()) {
+                tokens.values[i] = in.readLong();
+            }
+            tokens.size++;
+            priorEnd = end;
+            priorLine = line;
+        }
+
+        return tokens;
+    }
+
+    private static Tokens readKind(DataInputStream in) throws IOException {
+        int kind = in.readByte() & 0xff;
+
+        if (kind >= kindValues.length) {
+            throw new IOException("bad token kind " + kind);
+        }
+        return kindValues[kind];
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+
+    /**
+     * @return a cursor stepping through all of the tokens in order; for
+     *         tokens without a source (see read()) text() is the text of the
+     *         token's symbol, which for a string literal leaves out the quotes
+     */
+    public TokenCursor cursor() {
+        return new TokenCursor() {
+            private int i = -1;
+            private final CharSlice text = new CharSlice();
+
+            public boolean advance() {
+                if (i + 1 >= size) {
+                    i = size;
+                    return false;
+                }
+                i++;
+                return true;
+            }
+
+            public Tokens kind() {
+                return TokenBuffer.this.kind(i);
+            }
+
+            public Symbol symbol() {
+                return TokenBuffer.this.symbol(i);
+            }
+
+            public int start() {
+                return leftPosition(i);
+            }
+
+            public int end() {
+                return rightPosition(i);
+            }
+
+            public int line() {
+                return lines[i];
+            }
+
+            public CharSequence text() {
+                if (source == null) {
+                    return symbol().toString();
+                }
+                return text.set(source, starts[i], ends[i]);
+            }
+
+            public long longValue() {
+                return TokenBuffer.this.longValue(i);
+            }
+
+            public double doubleValue() {
+                return TokenBuffer.this.doubleValue(i);
+            }
+        };
+    }
+
+    /**
+     * @return an ILexer handing out all of the tokens in order
+     */
+    public ILexer lexer() {
+        return lexer(0, size);
+    }
+
+    /**
+     * @return an ILexer handing out tokens from up to (but not including) to
+     */
+    public ILexer lexer(final int from, final int to) {
+        return new ILexer() {
+            private int next = from;
+
+            public Token nextToken() {
+                if (next >= to) {
+                    return null;
+                }
+                return token(next++);
+            }
+        };
+    }
+}
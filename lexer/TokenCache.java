@@ -0,0 +1,138 @@
+package lexer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import tests.ILexer;
+
+/**
+ * The TokenCache class keeps the tokens of source files in a directory,
+ * so an unchanged file is lexed only once; an entry is keyed by a SHA-256
+ * of the file's contents and of the token table (generated from
+ * lexer/setup/tokens), so editing either one misses the cache<br>
+ * On a hit the tokens are read back from the entry, without running a
+ * lexer at all; e.g. new Parser(cache.lexer(sourceFile))<br>
+ * Sources that do not lex cleanly are not cached, so their errors are
+ * reported every time
+ */
+public class TokenCache {
+    // starts every entry; changes whenever the entry format does
+    private static final int MAGIC = 0x544F4B31;
+    private static final byte[] tableVersion = tableVersion();
+
+    private final Path directory;
+
+    /**
+     * @param directory holds the cache entries; it is created when the first
+     *                  entry is written
+     */
+    public TokenCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return an ILexer handing out the tokens of sourceFile
+     */
+    public ILexer lexer(String sourceFile) throws IOException {
+        return tokens(sourceFile).lexer();
+    }
+
+    /**
+     * @return the tokens of sourceFile, from the cache if they are there;
+     *         tokens read from the cache have no source buffer
+     */
+    public TokenBuffer tokens(String sourceFile) throws IOException {
+        byte[] contents = Files.readAllBytes(Paths.get(sourceFile));
+        Path entry = directory.resolve(key(contents) + ".tok");
+
+        if (Files.exists(entry)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+                if (in.readInt() == MAGIC) {
+                    return TokenBuffer.read(in, Files.size(entry) - Integer.BYTES);
+                }
+            } catch (IOException | RuntimeException e) {
+                // a damaged entry is lexed again and replaced
+            }
+        }
+
+        char[] source = new String(contents, StandardCharsets.UTF_8).toCharArray();
+        SymbolTable symbolTable = new SymbolTable();
+        DfaLexer lexer = new DfaLexer(source, 0, source.length, 1, symbolTable);
+        TokenBuffer tokens = new TokenBuffer(source, symbolTable);
+
+        tokens.addAll(lexer);
+        if (!lexer.failed) {
+            store(entry, tokens);
+        }
+        return tokens;
+    }
+
+    /**
+     * write the entry to a temporary file and move it into place, so a
+     * concurrent reader never sees half an entry; failing to write the
+     * cache is not an error
+     */
+    private void store(Path entry, TokenBuffer tokens) {
+        Path temp = null;
+
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, "tokens", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                tokens.write(out);
+            }
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                if (temp != null) {
+                    Files.deleteIfExists(temp);
+                }
+            } catch (IOException ignored) {
+                /* no-op */ }
+        }
+    }
+
+    private static String key(byte[] contents) {
+        MessageDigest digest = sha256();
+        digest.update(tableVersion);
+        digest.update(contents);
+
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return a digest of every token kind and its symbol, in order
+     */
+    private static byte[] tableVersion() {
+        MessageDigest digest = sha256();
+        for (Tokens kind : Tokens.values()) {
+            Symbol symbol = TokenType.tokens.get(kind);
+
+            digest.update((kind + " " + symbol + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
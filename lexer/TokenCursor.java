@@ -0,0 +1,55 @@
+package lexer;
+
+/**
+ * A TokenCursor steps through the tokens of a source program without
+ * building a Token for each one; after advance() the accessors describe
+ * the current token until the next advance()<br>
+ * Consumers that look at each token once (counters, highlighters, linters)
+ * can scan a whole program this way without creating per token garbage;
+ * nextToken() is layered on top of it for consumers that keep tokens
+ */
+public interface TokenCursor {
+
+    /**
+     * move to the next token
+     *
+     * @return false once there are no more tokens (or scanning stopped at
+     *         an error)
+     */
+    public boolean advance();
+
+    public Tokens kind();
+
+    public Symbol symbol();
+
+    /**
+     * @return the source file column where the token begins
+     */
+    public int start();
+
+    /**
+     * @return the source file column where the token ends; like
+     *         Token.getRightPosition() this is the column of its last
+     *         character
+     */
+    public int end();
+
+    public int line();
+
+    /**
+     * @return the source text of the token (a string literal includes its
+     *         quotes); the sequence is reused by the next advance(), so
+     *         call toString() to keep it
+     */
+    public CharSequence text();
+
+    /**
+     * @return the value of an INTeger token
+     */
+    public long longValue();
+
+    /**
+     * @return the value of a ScientificLit token
+     */
+    public double doubleValue();
+}
@@ -0,0 +1,16 @@
+package lexer;
+
+/**
+ * A TokenListener is told of each token as it is handed out, e.g. to trace
+ * the token stream while debugging; Lexer and Parser default to NONE, which
+ * does nothing, so tracing costs nothing unless it is turned on
+ */
+public interface TokenListener {
+    public static final TokenListener NONE = token -> {
+    };
+
+    /**
+     * @param token is the Token just handed out
+     */
+    public void token(Token token);
+}
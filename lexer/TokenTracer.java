@@ -0,0 +1,29 @@
+package lexer;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * The TokenTracer class writes each token it is told of, formatted by
+ * Token.print(), as a line to a Writer
+ */
+public class TokenTracer implements TokenListener {
+    private final PrintWriter out;
+
+    /**
+     * @param out receives the trace; a PrintWriter is used as is, so one
+     *            made with autoFlush keeps the trace in step with other
+     *            output such as the source listing
+     */
+    public TokenTracer(Writer out) {
+        this.out = out instanceof PrintWriter ? (PrintWriter) out : new PrintWriter(out);
+    }
+
+    public void token(Token token) {
+        out.println(token.print());
+    }
+
+    public void flush() {
+        out.flush();
+    }
+}
@@ -6,47 +6,53 @@ package lexer;
  * constants to their Symbols
  */
 public class TokenType {
-    public static java.util.HashMap<Tokens, Symbol> tokens = new java.util.HashMap<Tokens, Symbol>();
+    // built once, as the class is initialized, and read only from then on
+    public static final java.util.Map<Tokens, Symbol> tokens;
 
-    public TokenType() {
-        tokens.put(Tokens.Program, Symbol.symbol("program", Tokens.Program));
-        tokens.put(Tokens.Int, Symbol.symbol("int", Tokens.Int));
-        tokens.put(Tokens.BOOLean, Symbol.symbol("boolean", Tokens.BOOLean));
-        tokens.put(Tokens.If, Symbol.symbol("if", Tokens.If));
-        tokens.put(Tokens.Then, Symbol.symbol("then", Tokens.Then));
-        tokens.put(Tokens.Else, Symbol.symbol("else", Tokens.Else));
-        tokens.put(Tokens.While, Symbol.symbol("while", Tokens.While));
-        tokens.put(Tokens.Function, Symbol.symbol("function", Tokens.Function));
-        tokens.put(Tokens.Return, Symbol.symbol("return", Tokens.Return));
-        tokens.put(Tokens.Identifier, Symbol.symbol("<id>", Tokens.Identifier));
-        tokens.put(Tokens.INTeger, Symbol.symbol("<int>", Tokens.INTeger));
-        tokens.put(Tokens.LeftBrace, Symbol.symbol("{", Tokens.LeftBrace));
-        tokens.put(Tokens.RightBrace, Symbol.symbol("}", Tokens.RightBrace));
-        tokens.put(Tokens.LeftParen, Symbol.symbol("(", Tokens.LeftParen));
-        tokens.put(Tokens.RightParen, Symbol.symbol(")", Tokens.RightParen));
-        tokens.put(Tokens.Comma, Symbol.symbol(",", Tokens.Comma));
-        tokens.put(Tokens.Assign, Symbol.symbol("=", Tokens.Assign));
-        tokens.put(Tokens.Equal, Symbol.symbol("==", Tokens.Equal));
-        tokens.put(Tokens.NotEqual, Symbol.symbol("!=", Tokens.NotEqual));
-        tokens.put(Tokens.Less, Symbol.symbol("<", Tokens.Less));
-        tokens.put(Tokens.LessEqual, Symbol.symbol("<=", Tokens.LessEqual));
-        tokens.put(Tokens.Plus, Symbol.symbol("+", Tokens.Plus));
-        tokens.put(Tokens.Minus, Symbol.symbol("-", Tokens.Minus));
-        tokens.put(Tokens.Or, Symbol.symbol("|", Tokens.Or));
-        tokens.put(Tokens.And, Symbol.symbol("&", Tokens.And));
-        tokens.put(Tokens.Multiply, Symbol.symbol("*", Tokens.Multiply));
-        tokens.put(Tokens.Divide, Symbol.symbol("/", Tokens.Divide));
-        tokens.put(Tokens.Comment, Symbol.symbol("//", Tokens.Comment));
-        tokens.put(Tokens.Greater, Symbol.symbol(">", Tokens.Greater));
-        tokens.put(Tokens.GreaterEqual, Symbol.symbol(">=", Tokens.GreaterEqual));
-        tokens.put(Tokens.LeftBracket, Symbol.symbol("[", Tokens.LeftBracket));
-        tokens.put(Tokens.RightBracket, Symbol.symbol("]", Tokens.RightBracket));
-        tokens.put(Tokens.Range, Symbol.symbol("..", Tokens.Range));
-        tokens.put(Tokens.StringType, Symbol.symbol("string", Tokens.StringType));
-        tokens.put(Tokens.StringLit, Symbol.symbol("<string>", Tokens.StringLit));
-        tokens.put(Tokens.Scientific, Symbol.symbol("scientific", Tokens.Scientific));
-        tokens.put(Tokens.Forall, Symbol.symbol("forall", Tokens.Forall));
-        tokens.put(Tokens.In, Symbol.symbol("in", Tokens.In));
-        tokens.put(Tokens.ScientificLit, Symbol.symbol("<scientific>", Tokens.ScientificLit));
+    static {
+        java.util.EnumMap<Tokens, Symbol> table = new java.util.EnumMap<Tokens, Symbol>(Tokens.class);
+        table.put(Tokens.Program, new Symbol("program", Tokens.Program, 0));
+        table.put(Tokens.Int, new Symbol("int", Tokens.Int, 1));
+        table.put(Tokens.BOOLean, new Symbol("boolean", Tokens.BOOLean, 2));
+        table.put(Tokens.If, new Symbol("if", Tokens.If, 3));
+        table.put(Tokens.Then, new Symbol("then", Tokens.Then, 4));
+        table.put(Tokens.Else, new Symbol("else", Tokens.Else, 5));
+        table.put(Tokens.While, new Symbol("while", Tokens.While, 6));
+        table.put(Tokens.Function, new Symbol("function", Tokens.Function, 7));
+        table.put(Tokens.Return, new Symbol("return", Tokens.Return, 8));
+        table.put(Tokens.Identifier, new Symbol("<id>", Tokens.Identifier, 9));
+        table.put(Tokens.INTeger, new Symbol("<int>", Tokens.INTeger, 10));
+        table.put(Tokens.LeftBrace, new Symbol("{", Tokens.LeftBrace, 11));
+        table.put(Tokens.RightBrace, new Symbol("}", Tokens.RightBrace, 12));
+        table.put(Tokens.LeftParen, new Symbol("(", Tokens.LeftParen, 13));
+        table.put(Tokens.RightParen, new Symbol(")", Tokens.RightParen, 14));
+        table.put(Tokens.Comma, new Symbol(",", Tokens.Comma, 15));
+        table.put(Tokens.Assign, new Symbol("=", Tokens.Assign, 16));
+        table.put(Tokens.Equal, new Symbol("==", Tokens.Equal, 17));
+        table.put(Tokens.NotEqual, new Symbol("!=", Tokens.NotEqual, 18));
+        table.put(Tokens.Less, new Symbol("<", Tokens.Less, 19));
+        table.put(Tokens.LessEqual, new Symbol("<=", Tokens.LessEqual, 20));
+        table.put(Tokens.Plus, new Symbol("+", Tokens.Plus, 21));
+        table.put(Tokens.Minus, new Symbol("-", Tokens.Minus, 22));
+        table.put(Tokens.Or, new Symbol("|", Tokens.Or, 23));
+        table.put(Tokens.And, new Symbol("&", Tokens.And, 24));
+        table.put(Tokens.Multiply, new Symbol("*", Tokens.Multiply, 25));
+        table.put(Tokens.Divide, new Symbol("/", Tokens.Divide, 26));
+        table.put(Tokens.Comment, new Symbol("//", Tokens.Comment, 27));
+        table.put(Tokens.Greater, new Symbol(">", Tokens.Greater, 28));
+        table.put(Tokens.GreaterEqual, new Symbol(">=", Tokens.GreaterEqual, 29));
+        table.put(Tokens.LeftBracket, new Symbol("[", Tokens.LeftBracket, 30));
+        table.put(Tokens.RightBracket, new Symbol("]", Tokens.RightBracket, 31));
+        table.put(Tokens.Range, new Symbol("..", Tokens.Range, 32));
+        table.put(Tokens.StringType, new Symbol("string", Tokens.StringType, 33));
+        table.put(Tokens.StringLit, new Symbol("<string>", Tokens.StringLit, 34));
+        table.put(Tokens.Scientific, new Symbol("scientific", Tokens.Scientific, 35));
+        table.put(Tokens.Forall, new Symbol("forall", Tokens.Forall, 36));
+        table.put(Tokens.In, new Symbol("in", Tokens.In, 37));
+        table.put(Tokens.ScientificLit, new Symbol("<scientific>", Tokens.ScientificLit, 38));
+        tokens = java.util.Collections.unmodifiableMap(table);
+    }
+
+    private TokenType() {
     }
 }
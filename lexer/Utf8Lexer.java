@@ -0,0 +1,310 @@
+package lexer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import tests.ILexer;
+
+/**
+ * The Utf8Lexer class scans a source program held as the raw UTF-8 bytes
+ * of its file; the source is never decoded as a whole: outside of string
+ * literals the language is ASCII, so identifiers, numbers and operators
+ * are recognized from the bytes themselves, and only the text of a string
+ * literal is decoded<br>
+ * Identifiers and numbers are interned from byte slices through a small
+ * per-lexer cache in front of the SymbolTable, so a name seen before costs
+ * neither a String nor a table lookup<br>
+ * Tokens, line numbers and positions (counted in chars, as Lexer counts
+ * them) are the same as those produced by Lexer over a SourceReader,
+ * with BufferLexer's exception for a string literal that runs past the
+ * end of its line; unlike Lexer, a non-ASCII character outside of a
+ * string literal is an illegal character
+ */
+public class Utf8Lexer implements ILexer {
+    // strings of this compilation, and the slices interned so far
+    private SymbolTable symbolTable;
+    private SymbolCache symbolCache;
+    private byte[] buffer;
+    // next byte to process
+    private int index;
+    private int limit;
+    private boolean atEOF = false;
+
+    // line number and buffer offset of the first byte of the line
+    // currently being scanned; bytes of the line beyond its chars so far
+    private int lineNumber;
+    private int lineStart;
+    private int lineExtra = 0;
+
+    // the token just scanned: its symbol, line and first column
+    private Symbol symbol;
+    private int tokenStart;
+    private int tokenLine;
+    private int left;
+    // recognizes and decodes numeric literals in the buffer
+    private final NumberScanner numbers = new NumberScanner() {
+        protected char charAt(int at) {
+            return (char) (buffer[at] & 0xFF);
+        }
+
+        protected String slice(int start, int end) {
+            return Utf8Lexer.this.decode(start, end);
+        }
+
+        protected long intValue(int start, int end) {
+            return NumericLiterals.intValue(buffer, start, end);
+        }
+    };
+
+    /**
+     * Utf8Lexer constructor
+     *
+     * @param sourceFile is the name of the File to read the program source from
+     */
+    public Utf8Lexer(String sourceFile) throws IOException {
+        this(Files.readAllBytes(Paths.get(sourceFile)));
+    }
+
+    public Utf8Lexer(byte[] buffer) {
+        this(buffer, 0, buffer.length, 1, new SymbolTable());
+    }
+
+    /**
+     * @param buffer      holds the UTF-8 encoded source program
+     * @param from        is the offset of the first byte to scan; it must be
+     *                    the start of a line
+     * @param to          is the offset just past the last byte to scan
+     * @param firstLine   is the line number of the line starting at from
+     * @param symbolTable interns the strings of the program
+     */
+    public Utf8Lexer(byte[] buffer, int from, int to, int firstLine, SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+        this.symbolCache = new SymbolCache(symbolTable);
+        this.buffer = buffer;
+        this.index = from;
+        this.limit = to;
+        this.lineNumber = firstLine;
+        this.lineStart = from;
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    /**
+     * @return the next Token found in the source buffer
+     */
+    public Token nextToken() {
+        while (!atEOF) {
+            skipWhitespace();
+
+            if (index >= limit) {
+                atEOF = true;
+                break;
+            }
+
+            tokenStart = index;
+            tokenLine = lineNumber;
+            left = column(index);
+
+            int b = buffer[index];
+
+            if (b == '"') {
+                return scanString();
+            }
+            if (isLetter(b)) {
+                return scanIdentifier();
+            }
+            if (isDigit(b)) {
+                return scanNumber();
+            }
+            if (b < 0) {
+                return errorHandling("******** illegal character: " + decode(index, index + sequenceLength(b)) + "<");
+            }
+
+            // At this point the only tokens to check for are one or two
+            // characters; comments begin with 2 slashes
+            symbol = null;
+            if (index + 1 < limit && buffer[index + 1] >= 0) {
+                symbol = Operators.pair(b, buffer[index + 1]);
+            }
+            if (symbol != null) {
+                index += 2;
+            } else {
+                symbol = Operators.single(b);
+                if (symbol == null) {
+                    return errorHandling("******** illegal character: " + (char) b + "<");
+                }
+                index++;
+            }
+
+            if (symbol.getKind() == Tokens.Comment) {
+                skipComment();
+                continue;
+            }
+
+            return accept();
+        }
+
+        return null;
+    }
+
+    /**
+     * scan past whitespace, counting lines as they go by
+     */
+    private void skipWhitespace() {
+        while (index < limit) {
+            int b = buffer[index];
+
+            if (b == '\n' || b == '\r') {
+                endLine();
+            } else if (b == ' ' || b == '\t' || b == 0x0B || b == '\f' || (b >= 0x1C && b <= 0x1F)) {
+                index++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * comments run to the end of the line; UTF-8 continuation bytes are
+     * never mistaken for a line terminator
+     */
+    private void skipComment() {
+        while (index < limit && buffer[index] != '\n' && buffer[index] != '\r') {
+            index++;
+        }
+    }
+
+    /**
+     * consume the line terminator at index ("\n", "\r" or "\r\n") and
+     * start the next line
+     */
+    private void endLine() {
+        if (buffer[index] == '\r' && index + 1 < limit && buffer[index + 1] == '\n') {
+            index++;
+        }
+        index++;
+        lineNumber++;
+        lineStart = index;
+        lineExtra = 0;
+    }
+
+    /**
+     * string literals may not span lines; the symbol is the text between
+     * the quotes, the only part of the source that is decoded
+     */
+    private Token scanString() {
+        index++;
+        while (index < limit && buffer[index] != '"') {
+            int b = buffer[index];
+
+            if (b == '\n' || b == '\r') {
+                return errorHandling("***** Missing Closing Quotations *****");
+            }
+            if (b < 0) {
+                int length = Math.min(sequenceLength(b), limit - index);
+
+                // 4 byte sequences are a surrogate pair, 2 chars
+                lineExtra += length - (length == 4 ? 2 : 1);
+                index += length;
+            } else {
+                index++;
+            }
+        }
+        if (index >= limit) {
+            return errorHandling("***** Missing Closing Quotations *****");
+        }
+        index++;
+
+        symbol = symbolTable.symbol(decode(tokenStart + 1, index - 1), Tokens.StringLit);
+        return accept();
+    }
+
+    /**
+     * ids are either identifiers or reserved words; reserved words are
+     * recognized from the bytes themselves
+     */
+    private Token scanIdentifier() {
+        index++;
+        while (index < limit && (isLetter(buffer[index]) || isDigit(buffer[index]))) {
+            index++;
+        }
+
+        symbol = Keywords.symbol(buffer, tokenStart, index - tokenStart);
+        if (symbol == null) {
+            symbol = symbolCache.symbol(buffer, tokenStart, index, Tokens.Identifier);
+        }
+        return accept();
+    }
+
+    /**
+     * numbers are either integers or scientific literals, as NumberScanner
+     * recognizes them
+     */
+    private Token scanNumber() {
+        boolean scanned = numbers.scan(tokenStart, limit);
+
+        index = numbers.end;
+        if (!scanned) {
+            return errorHandling(numbers.error);
+        }
+
+        symbol = symbolCache.symbol(buffer, tokenStart, index, numbers.kind);
+        if (numbers.kind == Tokens.ScientificLit) {
+            return new Token(left, column(index) - 1, symbol, tokenLine, numbers.doubleValue);
+        }
+        return new Token(left, column(index) - 1, symbol, tokenLine, numbers.longValue);
+    }
+
+    private Token accept() {
+        return new Token(left, column(index) - 1, symbol, tokenLine);
+    }
+
+    /**
+     * @return the column (in chars) of the byte at offset at, which is on
+     *         the current line
+     */
+    private int column(int at) {
+        return at - lineStart - lineExtra;
+    }
+
+    /**
+     * report the error at the current token and stop scanning
+     */
+    private Token errorHandling(String message) {
+        System.out.println(BufferLexer.errorMessage(message, tokenLine, left));
+        atEOF = true;
+        return null;
+    }
+
+    private String decode(int start, int end) {
+        return new String(buffer, start, Math.min(end, limit) - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the length of the UTF-8 sequence with lead byte b; stray
+     *         continuation bytes count as 1 (they decode to one U+FFFD)
+     */
+    private static int sequenceLength(int b) {
+        if ((b & 0xE0) == 0xC0) {
+            return 2;
+        }
+        if ((b & 0xF0) == 0xE0) {
+            return 3;
+        }
+        if ((b & 0xF8) == 0xF0) {
+            return 4;
+        }
+        return 1;
+    }
+
+    private static boolean isLetter(int b) {
+        return (b | 0x20) >= 'a' && (b | 0x20) <= 'z' || b == '_' || b == '$';
+    }
+
+    private static boolean isDigit(int b) {
+        return b >= '0' && b <= '9';
+    }
+}
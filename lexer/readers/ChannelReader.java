@@ -0,0 +1,254 @@
+package lexer.readers;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class serves the source program from an InputStream or a
+ * ReadableByteChannel (e.g. standard input, a pipe or a socket) so a
+ * program need not be written to a file to be compiled; the input is read
+ * in large blocks into a direct buffer and decoded (UTF-8) a block at a
+ * time<br>
+ * Line and position tracking follow SourceReader exactly; the input is
+ * streamed, only the current line is kept, so there is no listing of the
+ * whole source (getSourceFile() is empty) but lines may be echoed as they
+ * are read with setEcho()
+ */
+public class ChannelReader implements IReader {
+    public static final int BUFFER_SIZE = 1 << 20;
+
+    private ReadableByteChannel channel;
+    private ByteBuffer bytes;
+    private CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private boolean endOfInput = false;
+    private boolean flushed = false;
+
+    // the decoded source; the text before the current line is only
+    // dropped when text is full
+    private char[] text = new char[8192];
+    private int length = 0;
+    // offsets in text of the start of the current line and of the next
+    // character to process
+    private int lineStart = 0;
+    private int offset = 0;
+
+    // line number of source program
+    private int lineNumber = 0;
+    // position of last character processed
+    private int position;
+    // if true then last character read was newline so start the next line
+    private boolean isPriorEndLine = true;
+    private boolean atEOF = false;
+    // if true each line is printed as it is started
+    private boolean echo = false;
+
+    public ChannelReader(InputStream in) {
+        this(Channels.newChannel(in));
+    }
+
+    public ChannelReader(ReadableByteChannel channel) {
+        this(channel, BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize is the number of bytes read from the channel at once;
+     *                   at least 4, the longest UTF-8 character
+     */
+    public ChannelReader(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        bytes = ByteBuffer.allocateDirect(Math.max(4, bufferSize));
+        bytes.flip();
+    }
+
+    /**
+     * @param echo if true each line is printed, with its line number, as
+     *             reading reaches it
+     */
+    public void setEcho(boolean echo) {
+        this.echo = echo;
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (Exception e) {
+            /* no-op */ }
+    }
+
+    /**
+     * read next char; track line #, character position in line<br>
+     * return space for newline
+     *
+     * @return the character just read in
+     * @IOException is thrown for IO problems such as end of file
+     */
+    public char read() throws IOException {
+        if (isPriorEndLine) {
+            lineNumber++;
+            position = -1;
+            isPriorEndLine = false;
+            lineStart = offset;
+
+            if (!available(offset)) {
+                atEOF = true;
+            } else if (echo) {
+                int end = lineEnd(lineStart);
+                System.out.println(String.format("%3s: ", lineNumber) + new String(text, lineStart, end - lineStart));
+            }
+        }
+
+        if (atEOF) {
+            // hit eof or some I/O problem
+            throw new IOException();
+        }
+
+        if (!available(offset)) {
+            // last line has no line terminator
+            return endLine();
+        }
+
+        char ch = text[offset];
+        if (ch == '\n') {
+            offset++;
+            return endLine();
+        }
+        if (ch == '\r') {
+            offset++;
+            if (available(offset) && text[offset] == '\n') {
+                offset++;
+            }
+            return endLine();
+        }
+
+        offset++;
+        position++;
+        return ch;
+    }
+
+    /**
+     * skip the rest of the current line: find its end in the buffered text
+     * and consume just the terminator rather than reading char by char
+     */
+    public void skipToEndOfLine() throws IOException {
+        if (isPriorEndLine || atEOF) {
+            return;
+        }
+
+        int end = lineEnd(offset);
+        position += end - offset;
+        offset = end;
+        read();
+    }
+
+    /**
+     * finish the current line; the next read() starts the following line
+     *
+     * @return the space standing in for the line terminator
+     */
+    private char endLine() {
+        // an empty line reports its space at position -1
+        if (position >= 0) {
+            position++;
+        }
+        isPriorEndLine = true;
+        return ' ';
+    }
+
+    /**
+     * @return the offset in text of the terminator (or end of input)
+     *         ending the current line, searching from start
+     */
+    private int lineEnd(int start) throws IOException {
+        // counted from the line start, which moves if text is compacted
+        int at = start - lineStart;
+
+        while (available(lineStart + at) && text[lineStart + at] != '\n' && text[lineStart + at] != '\r') {
+            at++;
+        }
+        return lineStart + at;
+    }
+
+    /**
+     * @return true if text holds a character at offset at, decoding more
+     *         of the input if need be; offsets in text move back if it is
+     *         compacted, so only lineStart and offset are good after a call
+     */
+    private boolean available(int at) throws IOException {
+        int fromLineStart = at - lineStart;
+
+        while (lineStart + fromLineStart >= length && !flushed) {
+            fill();
+        }
+        return lineStart + fromLineStart < length;
+    }
+
+    /**
+     * decode at least one more character into text, reading the channel
+     * as needed, or note that the input is used up; a full text is
+     * compacted, dropping the lines before the current one, or grown if
+     * the current line fills more than half of it
+     */
+    private void fill() throws IOException {
+        if (length == text.length) {
+            char[] target = lineStart >= text.length / 2 ? text : new char[text.length * 2];
+
+            System.arraycopy(text, lineStart, target, 0, length - lineStart);
+            text = target;
+            length -= lineStart;
+            offset -= lineStart;
+            lineStart = 0;
+        }
+
+        CharBuffer out = CharBuffer.wrap(text, length, text.length - length);
+        while (out.position() == length) {
+            if (endOfInput) {
+                if (decoder.decode(bytes, out, true).isUnderflow() && decoder.flush(out).isUnderflow()) {
+                    flushed = true;
+                }
+                break;
+            }
+
+            decoder.decode(bytes, out, false);
+            if (out.position() > length) {
+                break;
+            }
+
+            bytes.compact();
+            if (channel.read(bytes) < 0) {
+                endOfInput = true;
+            }
+            bytes.flip();
+        }
+
+        length = out.position();
+    }
+
+    /**
+     * @return the position of the character just read in
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the line number of the character just read in
+     */
+    public int getLineno() {
+        return lineNumber;
+    }
+
+    /**
+     * @return an empty listing; the input is not kept once it is read
+     */
+    public String getSourceFile() {
+        return "";
+    }
+}
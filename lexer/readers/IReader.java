@@ -5,6 +5,13 @@ import java.io.IOException;
 public interface IReader {
     public char read() throws IOException;
 
+    /**
+     * skip the rest of the current line, its terminator included, so the
+     * next read() returns the first character of the following line; it
+     * does nothing if the last character read ended the line
+     */
+    public void skipToEndOfLine() throws IOException;
+
     public int getPosition();
 
     public int getLineno();
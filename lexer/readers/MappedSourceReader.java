@@ -0,0 +1,278 @@
+package lexer.readers;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class serves the source program directly out of a memory mapped
+ * file; characters are decoded (UTF-8) straight from the mapped bytes so
+ * no per-line Strings are built while lexing. Line and position tracking
+ * follow SourceReader exactly: the end of each line is returned as a space
+ * and positions restart at 0 on every line; lines are not echoed.<br>
+ * Files larger than a single mapping (2 GB) are served through a window
+ * that is remapped as the read offset moves past it.
+ */
+public class MappedSourceReader implements IReader {
+    // size of each mapped window for files too large to map at once
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    private FileChannel channel;
+    private long fileSize;
+    private MappedByteBuffer window;
+    // file offset of the first byte in window
+    private long windowStart;
+    // file offset of the next byte to decode
+    private long offset = 0;
+
+    // line number of source program
+    private int lineNumber = 0;
+    // position of last character processed
+    private int position;
+    // if true then last character read was newline so start the next line
+    private boolean isPriorEndLine = true;
+    private boolean atEOF = false;
+    // low half of a surrogate pair still to be returned
+    private char pendingLow = 0;
+
+    /**
+     * Construct a new MappedSourceReader
+     *
+     * @param sourceFile the String describing the user's source file
+     * @exception IOException is thrown if there is an I/O problem
+     */
+    public MappedSourceReader(String sourceFile) throws IOException {
+        channel = FileChannel.open(Paths.get(sourceFile), StandardOpenOption.READ);
+        fileSize = channel.size();
+        windowStart = 0;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, 0, windowLength(0));
+    }
+
+    public void close() {
+        try {
+            window = null;
+            channel.close();
+        } catch (Exception e) {
+            /* no-op */ }
+    }
+
+    /**
+     * read next char; track line #, character position in line<br>
+     * return space for newline
+     *
+     * @return the character just read in
+     * @IOException is thrown for IO problems such as end of file
+     */
+    public char read() throws IOException {
+        if (isPriorEndLine) {
+            lineNumber++;
+            position = -1;
+            isPriorEndLine = false;
+
+            if (offset >= fileSize) {
+                atEOF = true;
+            }
+        }
+
+        if (atEOF) {
+            // hit eof
+            throw new IOException();
+        }
+
+        if (pendingLow != 0) {
+            char low = pendingLow;
+            pendingLow = 0;
+            position++;
+            return low;
+        }
+
+        if (offset >= fileSize) {
+            // last line has no line terminator
+            return endLine();
+        }
+
+        int b = byteAt(offset);
+        if (b == '\n') {
+            offset++;
+            return endLine();
+        }
+        if (b == '\r') {
+            offset++;
+            if (offset < fileSize && byteAt(offset) == '\n') {
+                offset++;
+            }
+            return endLine();
+        }
+
+        position++;
+        if (b < 0x80) {
+            offset++;
+            return (char) b;
+        }
+
+        return decode(b);
+    }
+
+    /**
+     * skip the rest of the current line: scan the mapped bytes for its
+     * terminator, counting the characters passed over, and consume just the
+     * terminator rather than decoding char by char
+     */
+    public void skipToEndOfLine() throws IOException {
+        if (isPriorEndLine || atEOF) {
+            return;
+        }
+
+        if (pendingLow != 0) {
+            pendingLow = 0;
+            position++;
+        }
+        while (offset < fileSize) {
+            int b = byteAt(offset);
+            if (b == '\n' || b == '\r') {
+                break;
+            }
+            // count a character at each lead byte; 4 byte sequences are
+            // surrogate pairs, two characters
+            if ((b & 0xC0) != 0x80) {
+                position++;
+            }
+            if (b >= 0xF0) {
+                position++;
+            }
+            offset++;
+        }
+        read();
+    }
+
+    /**
+     * finish the current line; the next read() starts the following line
+     *
+     * @return the space standing in for the line terminator
+     */
+    private char endLine() {
+        // an empty line reports its space at position -1 (as SourceReader)
+        if (position >= 0) {
+            position++;
+        }
+        isPriorEndLine = true;
+        return ' ';
+    }
+
+    /**
+     * decode a multi-byte UTF-8 sequence starting at offset; malformed
+     * input decodes to the replacement character
+     */
+    private char decode(int lead) {
+        int extra;
+        int codePoint;
+
+        if ((lead & 0xE0) == 0xC0) {
+            extra = 1;
+            codePoint = lead & 0x1F;
+        } else if ((lead & 0xF0) == 0xE0) {
+            extra = 2;
+            codePoint = lead & 0x0F;
+        } else if ((lead & 0xF8) == 0xF0) {
+            extra = 3;
+            codePoint = lead & 0x07;
+        } else {
+            offset++;
+            return '\uFFFD';
+        }
+
+        offset++;
+        for (int i = 0; i < extra; i++) {
+            if (offset >= fileSize) {
+                return '\uFFFD';
+            }
+            int b = byteAt(offset);
+            if ((b & 0xC0) != 0x80) {
+                return '\uFFFD';
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+            offset++;
+        }
+
+        if (Character.isBmpCodePoint(codePoint)) {
+            return (char) codePoint;
+        }
+        pendingLow = Character.lowSurrogate(codePoint);
+        return Character.highSurrogate(codePoint);
+    }
+
+    /**
+     * @return the unsigned byte at the given file offset, remapping the
+     *         window if the offset lies outside it
+     */
+    private int byteAt(long at) {
+        if (at < windowStart || at >= windowStart + window.limit()) {
+            try {
+                windowStart = at;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, at, windowLength(at));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return window.get((int) (at - windowStart)) & 0xFF;
+    }
+
+    private long windowLength(long start) {
+        long remaining = fileSize - start;
+
+        if (fileSize <= Integer.MAX_VALUE) {
+            return remaining;
+        }
+        return Math.min(remaining, WINDOW_SIZE);
+    }
+
+    /**
+     * @return the position of the character just read in
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the line number of the character just read in
+     */
+    public int getLineno() {
+        return lineNumber;
+    }
+
+    /**
+     * The listing is only built when asked for; it is decoded from the
+     * mapped file rather than accumulated while reading
+     */
+    public String getSourceFile() {
+        StringBuilder listing = new StringBuilder();
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int lineno = 0;
+        long at = 0;
+
+        while (at < fileSize) {
+            int b = byteAt(at++);
+
+            if (b == '\n' || b == '\r') {
+                if (b == '\r' && at < fileSize && byteAt(at) == '\n') {
+                    at++;
+                }
+                listing.append(String.format("\n %5s: ", ++lineno));
+                listing.append(new String(line.toByteArray(), StandardCharsets.UTF_8));
+                line.reset();
+            } else {
+                line.write(b);
+            }
+        }
+        if (line.size() > 0) {
+            listing.append(String.format("\n %5s: ", ++lineno));
+            listing.append(new String(line.toByteArray(), StandardCharsets.UTF_8));
+        }
+
+        return listing.toString();
+    }
+}
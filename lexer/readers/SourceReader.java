@@ -5,38 +5,57 @@ import java.io.*;
 /**
  * This class is used to manage the source program input stream;
  * each read request will return the next usable character; it
- * maintains the source column position of the character
+ * maintains the source column position of the character<br>
+ * The source is kept in a single char buffer together with an index of
+ * where each line starts, so lines (and the listing of the whole file)
+ * are only built when they are asked for; echoing each line as it is
+ * read is turned on with setEcho()
  */
 public class SourceReader implements IReader {
 
-    private BufferedReader source;
+    private Reader source;
+    // the source read so far
+    private char[] text = new char[8192];
+    private int length = 0;
+    private boolean atEndOfInput = false;
+    // lineStarts[n - 1] is the offset in text of the first character of line n
+    private int[] lineStarts = new int[256];
+    private int lineCount = 0;
+    // offset in text of the next character to process
+    private int offset = 0;
+
     // line number of source program
     private int lineNumber = 0;
     // position of last character processed
     private int position;
     // if true then last character read was newline so read in the next line
     private boolean isPriorEndLine = true;
-    private String nextLine;
-    String printFile = "";
-    private int rLine = 0;
-    private int rPosition = 0;
+    private boolean atEOF = false;
+    // if true each line is printed as it is started
+    private boolean echo = false;
 
     /**
      * Construct a new SourceReader
-     * 
+     *
      * @param sourceFile the String describing the user's source file
      * @exception IOException is thrown if there is an I/O problem
      */
     public SourceReader(String sourceFile) throws IOException {
-        // System.out.println("Source file: " + sourceFile);
-        // System.out.println("user.dir: " + System.getProperty("user.dir"));
-        source = new BufferedReader(new FileReader(sourceFile));
+        source = new FileReader(sourceFile);
     }
 
-    public SourceReader(BufferedReader reader) throws IOException {
+    public SourceReader(Reader reader) throws IOException {
         this.source = reader;
     }
 
+    /**
+     * @param echo if true each line is printed, with its line number, as
+     *             reading reaches it
+     */
+    public void setEcho(boolean echo) {
+        this.echo = echo;
+    }
+
     public void close() {
         try {
             source.close();
@@ -47,7 +66,7 @@ public class SourceReader implements IReader {
     /**
      * read next char; track line #, character position in line<br>
      * return space for newline
-     * 
+     *
      * @return the character just read in
      * @IOException is thrown for IO problems such as end of file
      */
@@ -55,34 +74,144 @@ public class SourceReader implements IReader {
         if (isPriorEndLine) {
             lineNumber++;
             position = -1;
-            nextLine = source.readLine();
-            buildPrintFile();
+            isPriorEndLine = false;
 
-            if (nextLine != null) {
-                String s = String.format("%3s: " + nextLine, getLineno());
-                System.out.println(s);
+            if (!available(offset)) {
+                atEOF = true;
+            } else {
+                if (lineNumber > lineCount) {
+                    addLine(offset);
+                }
+                if (echo) {
+                    System.out.println(String.format("%3s: ", lineNumber) + getLine(lineNumber));
+                }
             }
-
-            isPriorEndLine = false;
         }
 
-        if (nextLine == null) {
+        if (atEOF) {
             // hit eof or some I/O problem
             throw new IOException();
         }
 
-        if (nextLine.length() == 0) {
-            isPriorEndLine = true;
-            return ' ';
+        if (!available(offset)) {
+            // last line has no line terminator
+            return endLine();
         }
 
+        char ch = text[offset];
+        if (ch == '\n') {
+            offset++;
+            return endLine();
+        }
+        if (ch == '\r') {
+            offset++;
+            if (available(offset) && text[offset] == '\n') {
+                offset++;
+            }
+            return endLine();
+        }
+
+        offset++;
         position++;
-        if (position >= nextLine.length()) {
-            isPriorEndLine = true;
-            return ' ';
+        return ch;
+    }
+
+    /**
+     * skip the rest of the current line: find its end in the buffered text
+     * and consume just the terminator rather than reading char by char
+     */
+    public void skipToEndOfLine() throws IOException {
+        if (isPriorEndLine || atEOF) {
+            return;
+        }
+
+        int end = lineEnd(offset);
+        position += end - offset;
+        offset = end;
+        read();
+    }
+
+    /**
+     * finish the current line; the next read() starts the following line
+     *
+     * @return the space standing in for the line terminator
+     */
+    private char endLine() {
+        // an empty line reports its space at position -1
+        if (position >= 0) {
+            position++;
+        }
+        isPriorEndLine = true;
+        return ' ';
+    }
+
+    /**
+     * @return true if text holds a character at offset at, reading more
+     *         of the source if need be
+     */
+    private boolean available(int at) throws IOException {
+        while (at >= length && !atEndOfInput) {
+            if (length == text.length) {
+                char[] larger = new char[text.length * 2];
+                System.arraycopy(text, 0, larger, 0, length);
+                text = larger;
+            }
+
+            int count = source.read(text, length, text.length - length);
+            if (count < 0) {
+                atEndOfInput = true;
+            } else {
+                length += count;
+            }
+        }
+
+        return at < length;
+    }
+
+    private void addLine(int start) {
+        if (lineCount == lineStarts.length) {
+            int[] larger = new int[lineStarts.length * 2];
+            System.arraycopy(lineStarts, 0, larger, 0, lineCount);
+            lineStarts = larger;
+        }
+        lineStarts[lineCount++] = start;
+    }
+
+    /**
+     * index the lines of the source up to line n, reading ahead if need be
+     *
+     * @return false if the source has fewer than n lines
+     */
+    private boolean indexLine(int n) throws IOException {
+        while (lineCount < n) {
+            int start = 0;
+
+            if (lineCount > 0) {
+                start = lineEnd(lineStarts[lineCount - 1]);
+                if (available(start)) {
+                    start += (text[start] == '\r' && available(start + 1) && text[start + 1] == '\n') ? 2 : 1;
+                }
+            }
+            if (!available(start)) {
+                return false;
+            }
+            addLine(start);
         }
 
-        return nextLine.charAt(position);
+        return true;
+    }
+
+    /**
+     * @return the offset of the line terminator (or end of the source)
+     *         ending the line that starts at start
+     */
+    private int lineEnd(int start) throws IOException {
+        int at = start;
+
+        while (available(at) && text[at] != '\n' && text[at] != '\r') {
+            at++;
+        }
+        return at;
     }
 
     /**
@@ -96,26 +225,39 @@ public class SourceReader implements IReader {
      * @return the line number of the character just read in
      */
     public int getLineno() {
-        try {
-            return lineNumber;
-        } catch (Exception e) {
-            return 0;
-        }
+        return lineNumber;
     }
 
-    private void buildPrintFile() {
-        if (rLine < getLineno()) {
-            printFile += String.format("\n %5s: ", getLineno());
-            rLine++;
-        }
-        while (rPosition < getPosition()) {
-            printFile += " ";
-            rPosition++;
+    /**
+     * @param n is the number of the line wanted; lines start at 1
+     * @return the text of line n without its terminator, or null if the
+     *         source has no line n
+     */
+    public String getLine(int n) {
+        try {
+            if (n < 1 || !indexLine(n)) {
+                return null;
+            }
+
+            int start = lineStarts[n - 1];
+            return new String(text, start, lineEnd(start) - start);
+        } catch (IOException e) {
+            return null;
         }
-        printFile += nextLine;
     }
 
+    /**
+     * @return the listing of the whole source, one numbered line after
+     *         another
+     */
     public String getSourceFile() {
-        return printFile;
+        StringBuilder listing = new StringBuilder();
+        String line;
+
+        for (int n = 1; (line = getLine(n)) != null; n++) {
+            listing.append(String.format("\n %5s: ", n)).append(line);
+        }
+
+        return listing.toString();
     }
-}
\ No newline at end of file
+}
@@ -5,8 +5,10 @@ import java.io.*;
 
 /**
  * TokenSetup class is used to read the tokens from file <i>tokens</i>
- * and automatically build the 2 classes/files <i>TokenType.java</i>
- * and <i>Sym.java</i><br>
+ * and automatically build the classes/files <i>TokenType.java</i>,
+ * <i>Tokens.java</i>, the table driven scanner <i>DfaLexer.java</i>, the
+ * reserved word recognizer <i>Keywords.java</i> and the character class
+ * table <i>CharClass.java</i><br>
  * Therefore, if there is any change to the tokens then we only need to
  * modify the file <i>tokens</i> and run this program again before using the
  * compiler
@@ -17,7 +19,9 @@ public class TokenSetup {
     private int tokenCount = 0;
     private BufferedReader in;
     // files used for new classes
-    private PrintWriter table, symbols;
+    private PrintWriter table, symbols, scanner, keywords, charClass;
+    // every token read, in order; used to build the scanner's DFA
+    private ArrayList<String> types = new ArrayList<String>(), values = new ArrayList<String>();
 
     public static void main(String args[]) {
         new TokenSetup().initTokenClasses();
@@ -31,6 +35,9 @@ public class TokenSetup {
             in = new BufferedReader(new FileReader("lexer" + sep + "setup" + sep + "tokens"));
             table = new PrintWriter(new FileOutputStream("lexer" + sep + "TokenType.java"));
             symbols = new PrintWriter(new FileOutputStream("lexer" + sep + "Tokens.java"));
+            scanner = new PrintWriter(new FileOutputStream("lexer" + sep + "DfaLexer.java"));
+            keywords = new PrintWriter(new FileOutputStream("lexer" + sep + "Keywords.java"));
+            charClass = new PrintWriter(new FileOutputStream("lexer" + sep + "CharClass.java"));
         } catch (Exception e) {
             System.out.println(e);
         }
@@ -51,6 +58,10 @@ public class TokenSetup {
             StringTokenizer st = new StringTokenizer(in.readLine());
             type = st.nextToken();
             value = st.nextToken();
+            // operators that are special to the shell are escaped, e.g. \\*
+            if (value.length() > 1 && value.charAt(0) == '\\') {
+                value = value.substring(1);
+            }
         } catch (NoSuchElementException e) {
             System.out.println("***tokens file does not have 2 strings per line***");
             System.exit(1);
@@ -63,7 +74,7 @@ public class TokenSetup {
     }
 
     /**
-     * initTokenClasses will create the 2 files
+     * initTokenClasses will create the 5 files
      */
     public void initTokenClasses() {
         table.println("package lexer;");
@@ -74,9 +85,11 @@ public class TokenSetup {
         table.println(" *  constants to their Symbols");
         table.println("*/");
         table.println("public class TokenType {");
-        table.println(
-                "   public static java.util.HashMap<Tokens,Symbol> tokens = new java.util.HashMap<Tokens,Symbol>();");
-        table.println("   public TokenType() {");
+        table.println("   // built once, as the class is initialized, and read only from then on");
+        table.println("   public static final java.util.Map<Tokens,Symbol> tokens;");
+        table.println();
+        table.println("   static {");
+        table.println("     java.util.EnumMap<Tokens,Symbol> table = new java.util.EnumMap<Tokens,Symbol>(Tokens.class);");
         symbols.println("package lexer;");
         symbols.println(" ");
         symbols.println("/**");
@@ -93,11 +106,14 @@ public class TokenSetup {
                 break;
             }
 
+            types.add(type);
+            values.add(value);
             String symType = "Tokens." + type;
 
+            // the core Symbols are numbered in the order of the tokens file
             table.println(
-                    "     tokens.put(" + symType + ", Symbol.symbol(\"" +
-                            value + "\"," + symType + "));");
+                    "     table.put(" + symType + ", new Symbol(\"" +
+                            value + "\"," + symType + "," + (types.size() - 1) + "));");
 
             if (tokenCount % 5 == 0) {
                 symbols.print(",\n    " + type);
@@ -106,15 +122,544 @@ public class TokenSetup {
             }
         }
 
+        table.println("     tokens = java.util.Collections.unmodifiableMap(table);");
+        table.println("   }");
+        table.println();
+        table.println("   private TokenType() {");
         table.println("   }");
         table.println("}");
         table.close();
         symbols.println("\n}");
         symbols.close();
+        initScannerClass();
+        initKeywordClass();
+        initCharClass();
 
         try {
             in.close();
         } catch (Exception e) {
             /* no-op */ }
     }
+
+    // character classes used by the scanner; each operator character is
+    // given a class of its own, numbered from FIRST_OPERATOR_CLASS
+    private static final int OTHER = 0, WHITESPACE = 1, NEWLINE = 2, LETTER = 3,
+            EXPONENT = 4, DIGIT = 5, QUOTE = 6, FIRST_OPERATOR_CLASS = 7;
+    private static final String[] classNames = {
+            "OTHER", "WHITESPACE", "NEWLINE", "LETTER", "EXPONENT", "DIGIT", "QUOTE" };
+
+    private int[] asciiClass = new int[128];
+    private int classCount = FIRST_OPERATOR_CLASS;
+    // transitions.get(state)[class] is the next state, or -1 if there is none
+    private ArrayList<int[]> transitions = new ArrayList<int[]>();
+    // the token type recognized when the scan stops in a state (or null)
+    private ArrayList<String> accepting = new ArrayList<String>();
+    // token types needing more than a symbol once they are recognized
+    private String idType, intType, scientificType, stringType, commentType;
+
+    /**
+     * initScannerClass builds the DFA recognizing every token in the tokens
+     * file (reserved words are recognized as ids) and writes DfaLexer.java,
+     * a scanner that drives the DFA from its transition table
+     */
+    public void initScannerClass() {
+        buildCharClasses();
+        buildDfa();
+
+        int stateCount = transitions.size();
+        int[] table = new int[stateCount * classCount];
+
+        for (int state = 0; state < stateCount; state++) {
+            System.arraycopy(transitions.get(state), 0, table, state * classCount, classCount);
+        }
+
+        scanner.println("package lexer;");
+        scanner.println();
+        scanner.println("import java.io.IOException;");
+        scanner.println();
+        scanner.println("/**");
+        scanner.println(" * This file is automatically generated<br>");
+        scanner.println(" * it contains the DFA built from the tokens file, as a transition");
+        scanner.println(" * table indexed by state and character class, and the scanner that");
+        scanner.println(" * drives it; the longest match wins");
+        scanner.println(" */");
+        scanner.println("public class DfaLexer extends BufferLexer {");
+        for (int cls = 0; cls < FIRST_OPERATOR_CLASS; cls++) {
+            scanner.println("    private static final int " + classNames[cls] + " = " + cls + ";");
+        }
+        scanner.println("    private static final int CLASSES = " + classCount + ";");
+        scanner.println();
+        scanner.println("    private static final byte[] asciiClass = {");
+        printTable(scanner, asciiClass, 16);
+        scanner.println("    };");
+        scanner.println();
+        scanner.println("    // next state = transitions[state * CLASSES + class]; -1 when there is none");
+        scanner.println("    private static final short[] transitions = {");
+        printTable(scanner, table, classCount);
+        scanner.println("    };");
+        scanner.println();
+        scanner.println("    private static final Tokens[] accepting = {");
+        for (int state = 0; state < stateCount; state++) {
+            String type = accepting.get(state);
+            scanner.println("            " + (type == null ? "null" : "Tokens." + type) + ",");
+        }
+        scanner.println("    };");
+        scanner.println();
+        scanner.println("    private static final Symbol[] symbols = new Symbol[accepting.length];");
+        scanner.println();
+        scanner.println("    static {");
+        scanner.println("        for (int state = 0; state < accepting.length; state++) {");
+        scanner.println("            if (accepting[state] != null) {");
+        scanner.println("                symbols[state] = TokenType.tokens.get(accepting[state]);");
+        scanner.println("            }");
+        scanner.println("        }");
+        scanner.println("    }");
+        scanner.println();
+        scanner.println("    public DfaLexer(String sourceFile) throws IOException {");
+        scanner.println("        super(sourceFile);");
+        scanner.println("    }");
+        scanner.println();
+        scanner.println("    public DfaLexer(char[] buffer) {");
+        scanner.println("        super(buffer);");
+        scanner.println("    }");
+        scanner.println();
+        scanner.println("    public DfaLexer(char[] buffer, int from, int to, int firstLine, SymbolTable symbolTable) {");
+        scanner.println("        super(buffer, from, to, firstLine, symbolTable);");
+        scanner.println("    }");
+        scanner.println();
+        scanner.println("    private static int classOf(char ch) {");
+        scanner.println("        if (ch < 128) {");
+        scanner.println("            return asciiClass[ch];");
+        scanner.println("        }");
+        scanner.println("        if (Character.isDigit(ch)) {");
+        scanner.println("            return DIGIT;");
+        scanner.println("        }");
+        scanner.println("        if (Character.isJavaIdentifierStart(ch)) {");
+        scanner.println("            return LETTER;");
+        scanner.println("        }");
+        scanner.println("        if (Character.isWhitespace(ch)) {");
+        scanner.println("            return WHITESPACE;");
+        scanner.println("        }");
+        scanner.println("        return OTHER;");
+        scanner.println("    }");
+        scanner.println();
+        scanner.println("    @Override");
+        scanner.println("    protected boolean scan() {");
+        scanner.println("        while (!atEOF) {");
+        scanner.println("            // scan past whitespace");
+        scanner.println("            int cls;");
+        scanner.println("            while (index < limit && ((cls = classOf(buffer[index])) == WHITESPACE || cls == NEWLINE)) {");
+        scanner.println("                if (cls == NEWLINE) {");
+        scanner.println("                    endLine();");
+        scanner.println("                } else {");
+        scanner.println("                    index++;");
+        scanner.println("                }");
+        scanner.println("            }");
+        scanner.println("            if (index >= limit) {");
+        scanner.println("                atEOF = true;");
+        scanner.println("                break;");
+        scanner.println("            }");
+        scanner.println();
+        scanner.println("            tokenStart = index;");
+        scanner.println("            tokenLine = lineNumber;");
+        scanner.println("            tokenLineStart = lineStart;");
+        scanner.println();
+        scanner.println("            int state = 0, lastAccept = -1, lastAcceptEnd = index;");
+        scanner.println("            for (int at = index; at < limit; at++) {");
+        scanner.println("                state = transitions[state * CLASSES + classOf(buffer[at])];");
+        scanner.println("                if (state < 0) {");
+        scanner.println("                    break;");
+        scanner.println("                }");
+        scanner.println("                if (accepting[state] != null) {");
+        scanner.println("                    lastAccept = state;");
+        scanner.println("                    lastAcceptEnd = at + 1;");
+        scanner.println("                }");
+        scanner.println("            }");
+        scanner.println();
+        scanner.println("            if (lastAccept < 0) {");
+        if (stringType != null) {
+            scanner.println("                // only a string can start with a quote, so it has no closing one");
+            scanner.println("                if (classOf(buffer[index]) == QUOTE) {");
+            scanner.println("                    return errorHandling(\"***** Missing Closing Quotations *****\");");
+            scanner.println("                }");
+        }
+        scanner.println("                return errorHandling(\"******** illegal character: \" + buffer[index] + \"<\");");
+        scanner.println("            }");
+        scanner.println("            index = lastAcceptEnd;");
+        scanner.println();
+        scanner.println("            switch (accepting[lastAccept]) {");
+        if (commentType != null) {
+            scanner.println("                case " + commentType + ":");
+            scanner.println("                    skipComment();");
+            scanner.println("                    continue;");
+        }
+        if (idType != null) {
+            scanner.println("                case " + idType + ":");
+            scanner.println("                    symbol = Keywords.symbol(buffer, tokenStart, index - tokenStart);");
+            scanner.println("                    if (symbol == null) {");
+            scanner.println("                        symbol = intern(tokenStart, index, Tokens." + idType + ");");
+            scanner.println("                    }");
+            scanner.println("                    return accept(symbol.getKind());");
+        }
+        if (stringType != null) {
+            scanner.println("                case " + stringType + ":");
+            scanner.println("                    symbol = intern(tokenStart + 1, index - 1, Tokens." + stringType + ");");
+            scanner.println("                    return accept(Tokens." + stringType + ");");
+        }
+        if (intType != null || scientificType != null) {
+            for (String type : new String[] { intType, scientificType }) {
+                if (type != null) {
+                    scanner.println("                case " + type + ":");
+                }
+            }
+            scanner.println("                    return acceptNumber(accepting[lastAccept]);");
+        }
+        scanner.println("                default:");
+        scanner.println("                    symbol = symbols[lastAccept];");
+        scanner.println("                    return accept(accepting[lastAccept]);");
+        scanner.println("            }");
+        scanner.println("        }");
+        scanner.println();
+        scanner.println("        return false;");
+        scanner.println("    }");
+        scanner.println("}");
+        scanner.close();
+    }
+
+    /**
+     * letters, digits, whitespace, newlines and quotes share fixed classes;
+     * every other character used by an operator gets its own class
+     */
+    private void buildCharClasses() {
+        for (int ch = 0; ch < 128; ch++) {
+            if (ch == '\n' || ch == '\r') {
+                asciiClass[ch] = NEWLINE;
+            } else if (ch == 'e' || ch == 'E') {
+                asciiClass[ch] = EXPONENT;
+            } else if (Character.isDigit(ch)) {
+                asciiClass[ch] = DIGIT;
+            } else if (Character.isJavaIdentifierStart(ch)) {
+                asciiClass[ch] = LETTER;
+            } else if (Character.isWhitespace(ch)) {
+                asciiClass[ch] = WHITESPACE;
+            } else if (ch == '"') {
+                asciiClass[ch] = QUOTE;
+            } else {
+                asciiClass[ch] = OTHER;
+            }
+        }
+
+        // scientific literals also need '.', '+' and '-'
+        ArrayList<String> operators = new ArrayList<String>(values);
+        operators.add(".+-");
+
+        for (String value : operators) {
+            if (!isOperator(value)) {
+                continue;
+            }
+            for (char ch : value.toCharArray()) {
+                if (asciiClass[ch] == OTHER) {
+                    asciiClass[ch] = classCount++;
+                }
+            }
+        }
+    }
+
+    private boolean isOperator(String value) {
+        return !isPlaceholder(value) && !Character.isJavaIdentifierStart(value.charAt(0));
+    }
+
+    private boolean isPlaceholder(String value) {
+        return value.length() > 2 && value.startsWith("<") && value.endsWith(">");
+    }
+
+    private void buildDfa() {
+        int start = addState(null);
+        int intState = -1;
+
+        for (int i = 0; i < types.size(); i++) {
+            String type = types.get(i), value = values.get(i);
+
+            if (value.equals("<id>")) {
+                idType = type;
+                int id = addState(type);
+                addEdges(start, id, LETTER, EXPONENT);
+                addEdges(id, id, LETTER, EXPONENT, DIGIT);
+            } else if (value.equals("<int>")) {
+                intType = type;
+                // a scientific literal starts with a single digit, as in
+                // Lexer, so the second digit on moves to a state of its own
+                intState = addState(type);
+                int moreDigits = addState(type);
+                addEdges(start, intState, DIGIT);
+                addEdges(intState, moreDigits, DIGIT);
+                addEdges(moreDigits, moreDigits, DIGIT);
+            } else if (value.equals("<scientific>")) {
+                scientificType = type;
+            } else if (value.equals("<string>")) {
+                stringType = type;
+                int body = addState(null), end = addState(type);
+                addEdges(start, body, QUOTE);
+                for (int cls = 0; cls < classCount; cls++) {
+                    if (cls != QUOTE && cls != NEWLINE) {
+                        addEdges(body, body, cls);
+                    }
+                }
+                addEdges(body, end, QUOTE);
+            } else if (isOperator(value)) {
+                if (value.equals("//")) {
+                    commentType = type;
+                }
+
+                int state = start;
+                for (char ch : value.toCharArray()) {
+                    int next = transitions.get(state)[asciiClass[ch]];
+                    if (next < 0) {
+                        next = addState(null);
+                        addEdges(state, next, asciiClass[ch]);
+                    }
+                    state = next;
+                }
+                accepting.set(state, type);
+            }
+        }
+
+        // scientific: digit '.' 1 or 2 digits ('e' | 'E') ('+' | '-') digits
+        if (scientificType != null && intState >= 0) {
+            int dot = addState(null), fraction1 = addState(null), fraction2 = addState(null),
+                    exponent = addState(null), sign = addState(null),
+                    digits = addState(scientificType);
+
+            addEdges(intState, dot, asciiClass['.']);
+            addEdges(dot, fraction1, DIGIT);
+            addEdges(fraction1, fraction2, DIGIT);
+            addEdges(fraction1, exponent, EXPONENT);
+            addEdges(fraction2, exponent, EXPONENT);
+            addEdges(exponent, sign, asciiClass['+'], asciiClass['-']);
+            addEdges(sign, digits, DIGIT);
+            addEdges(digits, digits, DIGIT);
+        }
+    }
+
+    private int addState(String acceptType) {
+        int[] next = new int[classCount];
+
+        Arrays.fill(next, -1);
+        transitions.add(next);
+        accepting.add(acceptType);
+
+        return transitions.size() - 1;
+    }
+
+    private void addEdges(int from, int to, int... classes) {
+        for (int cls : classes) {
+            transitions.get(from)[cls] = to;
+        }
+    }
+
+    private static void printTable(PrintWriter out, int[] entries, int perLine) {
+        for (int i = 0; i < entries.length; i += perLine) {
+            StringBuilder line = new StringBuilder("           ");
+
+            for (int j = i; j < Math.min(i + perLine, entries.length); j++) {
+                line.append(String.format(" %2d,", entries[j]));
+            }
+            out.println(line);
+        }
+    }
+
+    /**
+     * initKeywordClass writes Keywords.java, a perfect hash of the reserved
+     * words (the ids in the tokens file) keyed on a word's length and its
+     * first and last characters; the multipliers are searched for here so
+     * that no two reserved words share a slot
+     */
+    public void initKeywordClass() {
+        ArrayList<String> words = new ArrayList<String>(), kinds = new ArrayList<String>();
+        int minLength = Integer.MAX_VALUE, maxLength = 0;
+
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+
+            if (Character.isJavaIdentifierStart(value.charAt(0))) {
+                words.add(value);
+                kinds.add(types.get(i));
+                minLength = Math.min(minLength, value.length());
+                maxLength = Math.max(maxLength, value.length());
+            }
+        }
+
+        int size = Integer.highestOneBit(Math.max(words.size(), 1) * 2 - 1) << 1;
+        int[] hash = null;
+        String[] slots = null;
+
+        search: for (; size <= 4096; size <<= 1) {
+            for (int a = 1; a < 64; a++) {
+                for (int b = 0; b < 64; b++) {
+                    slots = new String[size];
+                    for (String word : words) {
+                        int slot = slot(word, a, b, size - 1);
+                        if (slots[slot] != null) {
+                            slots = null;
+                            break;
+                        }
+                        slots[slot] = word;
+                    }
+                    if (slots != null) {
+                        hash = new int[] { a, b };
+                        break search;
+                    }
+                }
+            }
+        }
+
+        if (hash == null) {
+            System.out.println("***no perfect hash found for the reserved words***");
+            System.exit(1);
+        }
+
+        keywords.println("package lexer;");
+        keywords.println();
+        keywords.println("/**");
+        keywords.println(" * This file is automatically generated<br>");
+        keywords.println(" * it contains a perfect hash of the reserved words, keyed on the length");
+        keywords.println(" * and the first and last characters of a word, so a reserved word is");
+        keywords.println(" * recognized from a slice of the source without building a String or");
+        keywords.println(" * looking in the symbol table");
+        keywords.println(" */");
+        keywords.println("public class Keywords {");
+        keywords.println("    private static final int A = " + hash[0] + ", B = " + hash[1] + ", MASK = " + (size - 1) + ";");
+        keywords.println("    private static final int MIN_LENGTH = " + minLength + ", MAX_LENGTH = " + maxLength + ";");
+        keywords.println();
+        keywords.println("    private static final String[] words = new String[MASK + 1];");
+        keywords.println("    private static final Symbol[] symbols = new Symbol[MASK + 1];");
+        keywords.println();
+        keywords.println("    static {");
+        for (int i = 0; i < words.size(); i++) {
+            int slot = slot(words.get(i), hash[0], hash[1], size - 1);
+            keywords.println("        words[" + slot + "] = \"" + words.get(i) + "\";");
+            keywords.println("        symbols[" + slot + "] = TokenType.tokens.get(Tokens." + kinds.get(i) + ");");
+        }
+        keywords.println("    }");
+        keywords.println();
+        keywords.println("    /**");
+        keywords.println("     * @return the Symbol of the reserved word in buffer[start, start + length),");
+        keywords.println("     *         or null if the characters are not a reserved word");
+        keywords.println("     */");
+        keywords.println("    public static Symbol symbol(char[] buffer, int start, int length) {");
+        keywords.println("        if (length < MIN_LENGTH || length > MAX_LENGTH) {");
+        keywords.println("            return null;");
+        keywords.println("        }");
+        keywords.println();
+        keywords.println("        int slot = (length * A + buffer[start] * B + buffer[start + length - 1]) & MASK;");
+        keywords.println("        String word = words[slot];");
+        keywords.println("        if (word == null || word.length() != length) {");
+        keywords.println("            return null;");
+        keywords.println("        }");
+        keywords.println("        for (int i = 0; i < length; i++) {");
+        keywords.println("            if (word.charAt(i) != buffer[start + i]) {");
+        keywords.println("                return null;");
+        keywords.println("            }");
+        keywords.println("        }");
+        keywords.println();
+        keywords.println("        return symbols[slot];");
+        keywords.println("    }");
+        keywords.println();
+        keywords.println("    /**");
+        keywords.println("     * @return the Symbol of the reserved word in the ASCII bytes");
+        keywords.println("     *         buffer[start, start + length), or null if the bytes are not a");
+        keywords.println("     *         reserved word");
+        keywords.println("     */");
+        keywords.println("    public static Symbol symbol(byte[] buffer, int start, int length) {");
+        keywords.println("        if (length < MIN_LENGTH || length > MAX_LENGTH) {");
+        keywords.println("            return null;");
+        keywords.println("        }");
+        keywords.println();
+        keywords.println("        int slot = (length * A + buffer[start] * B + buffer[start + length - 1]) & MASK;");
+        keywords.println("        String word = words[slot];");
+        keywords.println("        if (word == null || word.length() != length) {");
+        keywords.println("            return null;");
+        keywords.println("        }");
+        keywords.println("        for (int i = 0; i < length; i++) {");
+        keywords.println("            if (word.charAt(i) != buffer[start + i]) {");
+        keywords.println("                return null;");
+        keywords.println("            }");
+        keywords.println("        }");
+        keywords.println();
+        keywords.println("        return symbols[slot];");
+        keywords.println("    }");
+        keywords.println();
+        keywords.println("    /**");
+        keywords.println("     * @return the Symbol of the reserved word id, or null if id is not one");
+        keywords.println("     */");
+        keywords.println("    public static Symbol symbol(CharSequence id) {");
+        keywords.println("        int length = id.length();");
+        keywords.println("        if (length < MIN_LENGTH || length > MAX_LENGTH) {");
+        keywords.println("            return null;");
+        keywords.println("        }");
+        keywords.println();
+        keywords.println("        int slot = (length * A + id.charAt(0) * B + id.charAt(length - 1)) & MASK;");
+        keywords.println("        String word = words[slot];");
+        keywords.println("        if (word == null || !word.contentEquals(id)) {");
+        keywords.println("            return null;");
+        keywords.println("        }");
+        keywords.println();
+        keywords.println("        return symbols[slot];");
+        keywords.println("    }");
+        keywords.println("}");
+        keywords.close();
+    }
+
+    // flags of the character classes the lexers test for
+    private static final int WHITESPACE_FLAG = 1, ID_START_FLAG = 2, ID_PART_FLAG = 4, DIGIT_FLAG = 8;
+
+    /**
+     * initCharClass writes CharClass.java, a table of flags for the ASCII
+     * characters; the flags are taken from the Unicode routines of Character
+     * here, so the lexers classify ASCII exactly as those routines would
+     * with a single array load
+     */
+    public void initCharClass() {
+        int[] flags = new int[128];
+
+        for (char ch = 0; ch < 128; ch++) {
+            flags[ch] = (Character.isWhitespace(ch) ? WHITESPACE_FLAG : 0)
+                    | (Character.isJavaIdentifierStart(ch) ? ID_START_FLAG : 0)
+                    | (Character.isJavaIdentifierPart(ch) ? ID_PART_FLAG : 0)
+                    | (Character.isDigit(ch) ? DIGIT_FLAG : 0);
+        }
+
+        charClass.println("package lexer;");
+        charClass.println();
+        charClass.println("/**");
+        charClass.println(" * This file is automatically generated<br>");
+        charClass.println(" * it contains the classes of the ASCII characters as flags, so the");
+        charClass.println(" * lexers classify a character with a single array load; characters");
+        charClass.println(" * outside of ASCII are classified by the Unicode routines of Character");
+        charClass.println(" */");
+        charClass.println("public class CharClass {");
+        charClass.println("    public static final int WHITESPACE = " + WHITESPACE_FLAG + ", ID_START = " + ID_START_FLAG
+                + ", ID_PART = " + ID_PART_FLAG + ", DIGIT = " + DIGIT_FLAG + ";");
+        charClass.println();
+        charClass.println("    private static final byte[] flags = {");
+        printTable(charClass, flags, 16);
+        charClass.println("    };");
+        String[][] tests = {
+                { "isWhitespace", "WHITESPACE", "isWhitespace" },
+                { "isIdentifierStart", "ID_START", "isJavaIdentifierStart" },
+                { "isIdentifierPart", "ID_PART", "isJavaIdentifierPart" },
+                { "isDigit", "DIGIT", "isDigit" } };
+        for (String[] test : tests) {
+            charClass.println();
+            charClass.println("    public static boolean " + test[0] + "(char ch) {");
+            charClass.println("        return ch < 128 ? (flags[ch] & " + test[1] + ") != 0 : Character." + test[2] + "(ch);");
+            charClass.println("    }");
+        }
+        charClass.println("}");
+        charClass.close();
+    }
+
+    private static int slot(String word, int a, int b, int mask) {
+        return (word.length() * a + word.charAt(0) * b + word.charAt(word.length() - 1)) & mask;
+    }
 }
@@ -0,0 +1,238 @@
+package parser;
+
+import ast.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import lexer.Token;
+import lexer.TokenBuffer;
+import lexer.Tokens;
+import tests.ILexer;
+
+/**
+ * The ParallelParser class parses a lexed program on a ForkJoinPool; the
+ * bodies of the functions declared at the top level of the program are
+ * independent blocks, so a brace matching pass over the tokens finds each
+ * body, the bodies are parsed concurrently, and the rest of the program
+ * is parsed with each body cut down to '{' '}' and then given its parsed
+ * body, in source order<br>
+ * The tree is the same one Parser builds; each task numbers the nodes it
+ * builds from 1, and once the tree is put together they are numbered
+ * again in the order Parser would have built them. A program with a
+ * syntax error is parsed again by Parser, so errors are reported just as
+ * they are when parsing sequentially
+ */
+public class ParallelParser {
+
+  public static AST parse(TokenBuffer tokens) throws Exception {
+    return parse(tokens, ForkJoinPool.commonPool());
+  }
+
+  public static AST parse(TokenBuffer tokens, ForkJoinPool pool) throws Exception {
+    final ArrayList<Body> bodies = findBodies(tokens);
+
+    if (bodies != null) {
+      AST program = parseBodies(tokens, bodies, pool);
+
+      if (program != null) {
+        return program;
+      }
+    }
+
+    return new Parser(tokens.lexer()).execute();
+  }
+
+  /**
+   * @return the tree of the program, or null if any part of it has a
+   *         syntax error
+   */
+  private static AST parseBodies(TokenBuffer tokens, final ArrayList<Body> bodies, ForkJoinPool pool)
+      throws Exception {
+    // the parsers are made here, so the tasks only parse
+    for (Body body : bodies) {
+      body.parser = new Parser(tokens.lexer(body.start, body.end + 1));
+    }
+
+    pool.invoke(new RecursiveAction() {
+      private static final long serialVersionUID = 1L;
+
+      protected void compute() {
+        invokeAll(bodies);
+      }
+    });
+
+    AST program;
+    int skeletonCount;
+    AST.startLocalNumbers();
+    try {
+      program = new Parser(skeleton(tokens, bodies)).rProgram();
+    } catch (SyntaxError e) {
+      return null;
+    } finally {
+      skeletonCount = AST.endLocalNumbers();
+    }
+
+    // the top level function declarations are the ones whose bodies were
+    // found, in the same order
+    ArrayList<AST> decls = new ArrayList<AST>();
+    for (AST t : program.getKid(1).getKids()) {
+      if (t instanceof FunctionDeclTree) {
+        if (decls.size() == bodies.size() || bodies.get(decls.size()).tree == null) {
+          return null;
+        }
+        decls.add(t);
+      }
+    }
+    if (decls.size() != bodies.size()) {
+      return null;
+    }
+
+    // Parser would build the nodes of each body where the skeleton has the
+    // body cut down to one node, so the skeleton's later nodes move up by
+    // the size of the bodies before them
+    int size = bodies.size(), total = skeletonCount;
+    final int[] cutBodies = new int[size], shifts = new int[size + 1];
+    for (int i = 0; i < size; i++) {
+      AST t = decls.get(i);
+      cutBodies[i] = t.getKid(t.kidCount()).getNodeNum();
+      shifts[i + 1] = shifts[i] + bodies.get(i).nodeCount - 1;
+      total += bodies.get(i).nodeCount - 1;
+    }
+    final int first = AST.reserveNodeNumbers(total);
+
+    AST.renumber(program, n -> {
+      int before = Arrays.binarySearch(cutBodies, n);
+      return first - 1 + n + shifts[before < 0 ? -before - 1 : before];
+    });
+    final ArrayList<ForkJoinTask<?>> renumbering = new ArrayList<ForkJoinTask<?>>();
+    for (int i = 0; i < size; i++) {
+      final AST t = decls.get(i), body = bodies.get(i).tree;
+      final int start = first - 1 + cutBodies[i] + shifts[i];
+
+      t.getKids().set(t.kidCount() - 1, body);
+      renumbering.add(ForkJoinTask.adapt(() -> AST.renumber(body, n -> start + n - 1)));
+    }
+    pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(renumbering)));
+
+    return program;
+  }
+
+  /**
+   * find the bodies of the functions declared at the top level, that is a
+   * type, a name and '(' directly inside the program's block
+   *
+   * @return the bodies, or null if one is not found where it should be
+   */
+  static ArrayList<Body> findBodies(TokenBuffer tokens) {
+    ArrayList<Body> bodies = new ArrayList<Body>();
+    int size = tokens.size();
+    int braces = 0, parens = 0;
+
+    for (int i = 0; i < size; i++) {
+      Tokens kind = tokens.kind(i);
+
+      if (kind == Tokens.LeftBrace) {
+        braces++;
+      } else if (kind == Tokens.RightBrace) {
+        braces--;
+      } else if (kind == Tokens.LeftParen) {
+        parens++;
+      } else if (kind == Tokens.RightParen) {
+        parens--;
+      } else if (braces == 1 && parens == 0 && isType(kind) && i + 2 < size
+          && tokens.kind(i + 1) == Tokens.Identifier && tokens.kind(i + 2) == Tokens.LeftParen) {
+        // skip the formals to the body
+        int start = i + 2;
+        for (int depth = 0; start < size; start++) {
+          if (tokens.kind(start) == Tokens.LeftParen) {
+            depth++;
+          } else if (tokens.kind(start) == Tokens.RightParen && --depth == 0) {
+            break;
+          }
+        }
+        start++;
+        if (start >= size || tokens.kind(start) != Tokens.LeftBrace) {
+          return null;
+        }
+
+        int end = start;
+        for (int depth = 0; end < size; end++) {
+          if (tokens.kind(end) == Tokens.LeftBrace) {
+            depth++;
+          } else if (tokens.kind(end) == Tokens.RightBrace && --depth == 0) {
+            break;
+          }
+        }
+        if (end == size) {
+          return null;
+        }
+
+        bodies.add(new Body(start, end));
+        i = end;
+      }
+    }
+
+    return bodies;
+  }
+
+  private static boolean isType(Tokens kind) {
+    return kind == Tokens.Int || kind == Tokens.BOOLean || kind == Tokens.StringType
+        || kind == Tokens.Scientific;
+  }
+
+  /**
+   * @return an ILexer handing out the tokens of the program with each body
+   *         cut down to its braces
+   */
+  private static ILexer skeleton(final TokenBuffer tokens, final ArrayList<Body> bodies) {
+    return new ILexer() {
+      private int next = 0, body = 0;
+
+      public Token nextToken() {
+        if (body < bodies.size() && next == bodies.get(body).start + 1) {
+          next = bodies.get(body++).end;
+        }
+        if (next >= tokens.size()) {
+          return null;
+        }
+        return tokens.token(next++);
+      }
+    };
+  }
+
+  /**
+   * the tokens [start, end] of a function body, the braces included, and
+   * the tree parsed from them
+   */
+  static class Body extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    final int start, end;
+    Parser parser;
+    AST tree;
+    // the number of nodes built by the parse
+    int nodeCount;
+
+    Body(int start, int end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    protected void compute() {
+      AST.startLocalNumbers();
+      try {
+        AST t = parser.rBlock();
+        // the block must end with the body
+        if (parser.atEnd()) {
+          tree = t;
+        }
+      } catch (SyntaxError e) {
+        /* no-op; the program is parsed again */
+      } finally {
+        nodeCount = AST.endLocalNumbers();
+      }
+    }
+  }
+}
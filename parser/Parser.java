@@ -56,22 +56,76 @@ public class Parser {
 
   private Token currentToken;
   private ILexer lex;
-  private EnumSet<Tokens> relationalOps = EnumSet.of(
+  // told of each token the parser scans
+  private TokenListener listener = TokenListener.NONE;
+  private static final EnumSet<Tokens> relationalOps = EnumSet.of(
       Tokens.Equal,
       Tokens.NotEqual,
       Tokens.Less,
       Tokens.LessEqual,
       Tokens.Greater,
       Tokens.GreaterEqual);
-  private EnumSet<Tokens> addingOps = EnumSet.of(
+  private static final EnumSet<Tokens> addingOps = EnumSet.of(
       Tokens.Plus,
       Tokens.Minus,
       Tokens.Or);
-  private EnumSet<Tokens> multiplyingOps = EnumSet.of(
+  private static final EnumSet<Tokens> multiplyingOps = EnumSet.of(
       Tokens.Multiply,
       Tokens.Divide,
       Tokens.And);
 
+  // binding power of the binary operators, indexed by Tokens ordinal;
+  // 0 for tokens that are not binary operators
+  static final int RELATIONAL = 1, ADDING = 2, MULTIPLYING = 3;
+  private static final int[] precedence = new int[Tokens.values().length];
+  static {
+    for (Tokens kind : relationalOps) {
+      precedence[kind.ordinal()] = RELATIONAL;
+    }
+    for (Tokens kind : addingOps) {
+      precedence[kind.ordinal()] = ADDING;
+    }
+    for (Tokens kind : multiplyingOps) {
+      precedence[kind.ordinal()] = MULTIPLYING;
+    }
+  }
+
+  // if true expressions are parsed by precedence climbing rather than by
+  // the e -> se -> t -> f cascade; both build the same trees
+  private boolean precedenceParsing = true;
+  // if true blocks and expressions are parsed on a heap allocated work
+  // stack (see StackParser) rather than by recursive descent
+  private boolean explicitStack = false;
+
+  // tokens that a statement, a declaration or the end of a block begin
+  // with; after a syntax error the parser skips to one of them
+  private static final EnumSet<Tokens> syncTokens = EnumSet.of(
+      Tokens.RightBrace,
+      Tokens.If,
+      Tokens.While,
+      Tokens.Return,
+      Tokens.LeftBrace,
+      Tokens.Identifier,
+      Tokens.Forall,
+      Tokens.Int,
+      Tokens.BOOLean,
+      Tokens.StringType,
+      Tokens.Scientific);
+  // if true syntax errors are collected in errors and parsing carries on
+  private boolean recovery = false;
+  private ArrayList<String> errors = new ArrayList<String>();
+  private boolean reportedEnd = false;
+  // the number of tokens scanned, and that number when the parser last
+  // resynchronized
+  private int scanned = 0, resynced = -1;
+
+  // the lexed program, when parsing from a TokenBuffer: the index of the
+  // token after currentToken and the index the tokens parsed end at
+  private TokenBuffer tokens;
+  private int next, limit;
+  // if true function bodies are skipped and parsed when first asked for
+  private boolean lazyBodies = false;
+
   /**
    * Construct a new Parser;
    *
@@ -90,11 +144,105 @@ public class Parser {
 
   // Constructor used for testing
   public Parser(ILexer lexer) throws Exception {
-    new TokenType();
+    this(lexer, TokenListener.NONE);
+  }
+
+  /**
+   * @param lexer    supplies the tokens of the program
+   * @param listener is told of each token the parser scans, e.g. a
+   *                 TokenTracer to trace the token stream
+   */
+  public Parser(ILexer lexer, TokenListener listener) throws Exception {
     lex = lexer;
+    this.listener = listener;
+    scan();
+  }
+
+  /**
+   * Construct a Parser over a lexed program; it may parse function bodies
+   * lazily (see setLazyBodies)
+   *
+   * @param tokens - the tokens of the program
+   */
+  public Parser(TokenBuffer tokens) throws Exception {
+    this(tokens, 0, tokens.size());
+  }
+
+  /**
+   * @param from - index of the first token to parse
+   * @param to   - index just past the last token to parse
+   */
+  Parser(TokenBuffer tokens, int from, int to) throws Exception {
+    this.tokens = tokens;
+    next = from;
+    limit = to;
+    lex = () -> next < limit ? this.tokens.token(next++) : null;
     scan();
   }
 
+  public void setTokenListener(TokenListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * @param precedenceParsing if true (the default) expressions are parsed
+   *                          by precedence climbing, else by the rExpr,
+   *                          rSimpleExpr, rTerm, rFactor cascade
+   */
+  public void setPrecedenceParsing(boolean precedenceParsing) {
+    this.precedenceParsing = precedenceParsing;
+  }
+
+  /**
+   * @param explicitStack if true the program is parsed on an explicit work
+   *                      stack, so its nesting depth is bounded by the heap
+   *                      rather than the thread stack; the tree is the same
+   */
+  public void setExplicitStack(boolean explicitStack) {
+    this.explicitStack = explicitStack;
+  }
+
+  /**
+   * @param lazyBodies if true the body of each function is skipped, by
+   *                   matching its braces, and only parsed when it is
+   *                   first asked for (see FunctionDeclTree), so reading
+   *                   the function headers costs nothing for the bodies;
+   *                   a syntax error in a body is then only found when
+   *                   the body is parsed: it is added to getErrors() then
+   *                   when recovering from errors, and the token listener
+   *                   is told of a body's tokens then too
+   * @exception IllegalStateException - if the parser is not over a
+   *                                    TokenBuffer
+   */
+  public void setLazyBodies(boolean lazyBodies) {
+    if (lazyBodies && tokens == null) {
+      throw new IllegalStateException("lazy bodies need a Parser over a TokenBuffer");
+    }
+    this.lazyBodies = lazyBodies;
+  }
+
+  /**
+   * @param recovery if true a syntax error does not end the parse: it is
+   *                 added to getErrors() and the parser skips to the next
+   *                 statement, declaration or closing brace; a Lexer
+   *                 adds its errors to the same list and skips illegal
+   *                 characters
+   */
+  public void setRecovery(boolean recovery) {
+    this.recovery = recovery;
+    if (lex instanceof Lexer) {
+      ((Lexer) lex).collectErrors(recovery ? errors : null);
+    }
+  }
+
+  /**
+   * @return the errors found, in the order they were found, when
+   *         recovering from errors
+   */
+  public List<String> getErrors() {
+    return errors;
+  }
+
   public Lexer getLex() {
     return (Lexer) lex;
   }
@@ -102,13 +250,22 @@ public class Parser {
   /**
    * Execute the parse command
    *
-   * @return the AST for the source program
+   * @return the AST for the source program; when recovering from errors,
+   *         the tree of the parts that parsed, or null if the program did
+   *         not start with 'program {'
    * @exception Exception - pass on any type of exception raised
    */
   public AST execute() throws Exception {
     try {
+      if (explicitStack) {
+        return new StackParser(this).rProgram();
+      }
       return rProgram();
     } catch (SyntaxError e) {
+      if (recovery) {
+        addError(e);
+        return null;
+      }
       e.print();
       throw e;
     }
@@ -141,20 +298,34 @@ public class Parser {
     expect(Tokens.LeftBrace);
     AST t = new BlockTree();
 
-    // Get declarations until there are no more matches for declarations
+    while (true) {
+      try {
+        // Get declarations until there are no more matches for declarations
 
-    while (startingDecl()) {
-      t.addKid(rDecl());
-    }
+        while (startingDecl()) {
+          t.addKid(rDecl());
+        }
 
-    // Get statements until there are no more matches for statements
-    while (startingStatement()) {
-      t.addKid(rStatement());
-    }
+        // Get statements until there are no more matches for statements
+        while (startingStatement()) {
+          t.addKid(rStatement());
+        }
 
-    expect(Tokens.RightBrace);
+        expect(Tokens.RightBrace);
 
-    return t;
+        return t;
+      } catch (SyntaxError e) {
+        // drop the statement in error and carry on with the rest of the
+        // block, if there is any more
+        if (!recovery) {
+          throw e;
+        }
+        recover(e);
+        if (currentToken == null) {
+          return t;
+        }
+      }
+    }
   }
 
   boolean startingDecl() {
@@ -188,7 +359,11 @@ public class Parser {
     if (isNextTok(Tokens.LeftParen)) {
       t = (new FunctionDeclTree()).addKid(t).addKid(t1);
       t.addKid(rFuncHead());
-      t.addKid(rBlock());
+      if (lazyBodies) {
+        deferBody((FunctionDeclTree) t);
+      } else {
+        t.addKid(rBlock());
+      }
       return t;
     }
     t = (new DeclTree()).addKid(t).addKid(t1);
@@ -328,6 +503,10 @@ public class Parser {
    * @exception SyntaxError - thrown for any syntax error
    */
   public AST rExpr() throws SyntaxError {
+    if (precedenceParsing) {
+      return rBinary(RELATIONAL);
+    }
+
     AST t, kid = rSimpleExpr();
 
     t = getRelationTree();
@@ -341,6 +520,63 @@ public class Parser {
     return t;
   }
 
+  /**
+   * parse the operators binding at least as tightly as minPrecedence by
+   * precedence climbing; an operand costs one call of rBinary and one
+   * table lookup rather than a call of each of rExpr, rSimpleExpr, rTerm
+   * and rFactor and a test of each operator set<br>
+   * Adding and multiplying operators are left associative; a relational
+   * operator takes two simple expressions and no more, as in rExpr
+   *
+   * @return the tree corresponding to the expression
+   * @exception SyntaxError - thrown for any syntax error
+   */
+  private AST rBinary(int minPrecedence) throws SyntaxError {
+    AST t, kid = rFactor();
+    int level;
+
+    while ((level = precedence()) >= minPrecedence) {
+      t = getOperTree(level);
+
+      t.addKid(kid);
+      t.addKid(rBinary(level + 1));
+      kid = t;
+
+      if (level == RELATIONAL) {
+        break;
+      }
+    }
+
+    return kid;
+  }
+
+  /**
+   * @return the binding power of the current token, RELATIONAL, ADDING or
+   *         MULTIPLYING, or 0 if it is not a binary operator
+   */
+  int precedence() {
+    return currentToken == null ? 0 : precedence[currentToken.getKind().ordinal()];
+  }
+
+  /**
+   * @param level is the binding power of the current token, an operator
+   * @return the tree for the operator, which is scanned past
+   */
+  AST getOperTree(int level) {
+    AST t;
+
+    if (level == RELATIONAL) {
+      t = new RelOpTree(currentToken);
+    } else if (level == ADDING) {
+      t = new AddOpTree(currentToken);
+    } else {
+      t = new MultOpTree(currentToken);
+    }
+    scan();
+
+    return t;
+  }
+
   public AST rRangeExpression() throws SyntaxError {
     AST t;
     t = new RangeExpTree();
@@ -429,17 +665,7 @@ public class Parser {
       return t;
     }
     // -> <int>
-    else if (isNextTok(Tokens.INTeger)) {
-      t = new IntTree(currentToken);
-      scan();
-      return t;
-    } else if (isNextTok(Tokens.StringLit)) {
-      t = new StringTree(currentToken);
-      scan();
-      return t;
-    } else if (isNextTok(Tokens.ScientificLit)) {
-      t = new ScientificTree(currentToken);
-      scan();
+    else if ((t = getLiteralTree()) != null) {
       return t;
     }
 
@@ -486,6 +712,24 @@ public class Parser {
     throw new SyntaxError(currentToken, Tokens.Identifier);
   }
 
+  // build tree with current token's literal
+  AST getLiteralTree() {
+    AST t;
+
+    if (isNextTok(Tokens.INTeger)) {
+      t = new IntTree(currentToken);
+    } else if (isNextTok(Tokens.StringLit)) {
+      t = new StringTree(currentToken);
+    } else if (isNextTok(Tokens.ScientificLit)) {
+      t = new ScientificTree(currentToken);
+    } else {
+      return null;
+    }
+    scan();
+
+    return t;
+  }
+
   // build tree with current token's relation
   private AST getRelationTree() {
     Tokens kind = currentToken.getKind();
@@ -526,11 +770,11 @@ public class Parser {
     }
   }
 
-  private boolean isNextTok(Tokens kind) {
+  boolean isNextTok(Tokens kind) {
     return currentToken != null && currentToken.getKind() == kind;
   }
 
-  private void expect(Tokens kind) throws SyntaxError {
+  void expect(Tokens kind) throws SyntaxError {
     if (isNextTok(kind)) {
       scan();
 
@@ -540,43 +784,117 @@ public class Parser {
     }
   }
 
-  private void scan() {
-    currentToken = lex.nextToken();
+  boolean isLazy() {
+    return lazyBodies;
+  }
 
-    // This is debug printout (and should not appear in final submission)
-    if (currentToken != null) {
-      currentToken.print();
+  /**
+   * skip the body of the function t, which starts at the current token,
+   * and have it parsed when it is first asked for
+   */
+  void deferBody(FunctionDeclTree t) throws SyntaxError {
+    if (!isNextTok(Tokens.LeftBrace)) {
+      throw new SyntaxError(currentToken, Tokens.LeftBrace);
     }
 
-    return;
+    final int start = next - 1;
+    int end = start;
+    for (int depth = 0; end < limit; end++) {
+      if (tokens.kind(end) == Tokens.LeftBrace) {
+        depth++;
+      } else if (tokens.kind(end) == Tokens.RightBrace && --depth == 0) {
+        break;
+      }
+    }
+
+    next = Math.min(end + 1, limit);
+    scan();
+    if (end == limit) {
+      throw new SyntaxError(currentToken, Tokens.RightBrace);
+    }
+
+    final int to = end + 1;
+    // a body parsed again, e.g. by FlatAST, reports nothing twice
+    final boolean[] parsed = { false };
+    t.setLazyBody(() -> {
+      AST block = parseBody(start, to, !parsed[0]);
+      parsed[0] = true;
+      return block;
+    });
+  }
+
+  /**
+   * @param report if true the body's errors are added to getErrors() and
+   *               its tokens told to the token listener
+   * @return the block made of the tokens [from, to), parsed the way this
+   *         parser parses
+   */
+  private AST parseBody(int from, int to, boolean report) {
+    try {
+      // this parser has already told the listener of the body's '{'
+      Parser parser = new Parser(tokens, from, to);
+      parser.listener = report ? listener : TokenListener.NONE;
+      parser.precedenceParsing = precedenceParsing;
+      parser.explicitStack = explicitStack;
+      parser.lazyBodies = true;
+      parser.recovery = recovery;
+      if (report) {
+        parser.errors = errors;
+      }
+
+      return explicitStack ? new StackParser(parser).rBlock() : parser.rBlock();
+    } catch (SyntaxError e) {
+      e.print();
+      throw new IllegalStateException(e.toString(), e);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
   }
-}
 
-class SyntaxError extends Exception {
+  boolean isRecovering() {
+    return recovery;
+  }
 
-  private static final long serialVersionUID = 1L;
-  private Token tokenFound;
-  private Tokens kindExpected;
+  boolean atEnd() {
+    return currentToken == null;
+  }
 
   /**
-   * record the syntax error just encountered
-   *
-   * @param tokenFound   is the token just found by the parser
-   * @param kindExpected is the token we expected to find based on the current
-   *                     context
+   * record the syntax error e and skip to a token a statement, a
+   * declaration or the end of a block begins with
    */
-  public SyntaxError(Token tokenFound, Tokens kindExpected) {
-    this.tokenFound = tokenFound;
-    this.kindExpected = kindExpected;
+  void recover(SyntaxError e) {
+    addError(e);
+
+    // nothing was parsed since the last error, so skip a token to be sure
+    // of getting past it
+    if (currentToken != null && scanned == resynced) {
+      scan();
+    }
+    while (currentToken != null && !syncTokens.contains(currentToken.getKind())) {
+      scan();
+    }
+    resynced = scanned;
   }
 
-  void print() {
-    System.out.println("Expected: " + kindExpected);
-    return;
+  private void addError(SyntaxError e) {
+    // the enclosing blocks all miss their closing braces at the end of the
+    // file; report that once
+    if (e.getTokenFound() == null) {
+      if (reportedEnd) {
+        return;
+      }
+      reportedEnd = true;
+    }
+    errors.add(e.describe());
   }
 
-  @Override
-  public String toString() {
-    return String.format("Expected [%s], found [%s]", kindExpected, tokenFound);
+  void scan() {
+    currentToken = lex.nextToken();
+    scanned++;
+
+    if (currentToken != null) {
+      listener.token(currentToken);
+    }
   }
 }
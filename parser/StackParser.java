@@ -0,0 +1,430 @@
+package parser;
+
+import ast.*;
+import java.util.ArrayList;
+import lexer.Tokens;
+
+/**
+ * The StackParser class parses a program for a Parser without recursion:
+ * each rule being parsed is a Frame on an explicit work stack kept in the
+ * heap, so programs nested thousands of blocks or parentheses deep parse
+ * on a small thread stack<br>
+ * It follows the grammar of Parser rule for rule, consuming the same
+ * tokens and building the same tree; expressions are parsed by
+ * precedence climbing as in Parser.rBinary. A rule that calls another
+ * pushes a Frame for it and records the state to resume in; the finished
+ * rule's tree is handed back in result
+ */
+class StackParser {
+  // the rules
+  private static final int BLOCK = 0, DECL = 1, FORMALS = 2, STATEMENT = 3, BINARY = 4, FACTOR = 5;
+  // the state every rule starts in
+  private static final int START = 0;
+  // BLOCK states
+  private static final int DECLS = 1, STATEMENTS = 2;
+  // DECL states
+  private static final int FUNCTION_HEAD = 1, FUNCTION_BODY = 2;
+  // FORMALS, and FACTOR for a call, collecting a list of kids
+  private static final int LIST = 1;
+  // STATEMENT states
+  private static final int IF_THEN = 1, IF_ELSE = 2, WHILE_BODY = 3, FORALL_RANGE = 4, LAST_KID = 5;
+  // BINARY states
+  private static final int OPERATOR = 1, RIGHT_OPERAND = 2;
+  // FACTOR states
+  private static final int PARENTHESIZED = 2;
+
+  private final Parser parser;
+  private final ArrayList<Frame> stack = new ArrayList<Frame>();
+  // the tree of the rule just finished
+  private AST result;
+
+  StackParser(Parser parser) {
+    this.parser = parser;
+  }
+
+  /**
+   * Program -> 'program' block ==> program
+   *
+   * @return the program tree
+   * @exception SyntaxError - thrown for any syntax error
+   */
+  AST rProgram() throws SyntaxError {
+    AST t = new ProgramTree();
+    parser.expect(Tokens.Program);
+
+    push(BLOCK);
+    run();
+    t.addKid(result);
+    return t;
+  }
+
+  /**
+   * block -> '{' d* s* '}' ==> block
+   *
+   * @return the block tree
+   * @exception SyntaxError - thrown for any syntax error
+   */
+  AST rBlock() throws SyntaxError {
+    push(BLOCK);
+    run();
+    return result;
+  }
+
+  /**
+   * start parsing rule; result is cleared so a rule collecting kids can
+   * tell whether one has just been finished
+   */
+  private void push(int rule) {
+    stack.add(new Frame(rule));
+    result = null;
+  }
+
+  private void pushBinary(int minPrecedence) {
+    push(BINARY);
+    stack.get(stack.size() - 1).level = minPrecedence;
+  }
+
+  /**
+   * finish the rule on top of the stack with t as its tree
+   */
+  private void finish(AST t) {
+    stack.remove(stack.size() - 1);
+    result = t;
+  }
+
+  /**
+   * step the rule on top of the stack until the stack is empty
+   */
+  private void run() throws SyntaxError {
+    while (!stack.isEmpty()) {
+      Frame frame = stack.get(stack.size() - 1);
+
+      try {
+        switch (frame.rule) {
+          case BLOCK:
+            block(frame);
+            break;
+          case DECL:
+            decl(frame);
+            break;
+          case FORMALS:
+            formals(frame);
+            break;
+          case STATEMENT:
+            statement(frame);
+            break;
+          case BINARY:
+            binary(frame);
+            break;
+          default:
+            factor(frame);
+        }
+      } catch (SyntaxError e) {
+        if (!parser.isRecovering()) {
+          throw e;
+        }
+        recover(e);
+      }
+    }
+  }
+
+  /**
+   * unwind to the innermost block that is collecting its declarations and
+   * statements and carry on with it, as Parser.rBlock does; an error
+   * outside of any block ends the parse
+   */
+  private void recover(SyntaxError e) throws SyntaxError {
+    int top = stack.size() - 1;
+    while (top >= 0 && !(stack.get(top).rule == BLOCK && stack.get(top).state != START)) {
+      top--;
+    }
+    if (top < 0) {
+      throw e;
+    }
+    stack.subList(top + 1, stack.size()).clear();
+
+    parser.recover(e);
+    Frame block = stack.get(top);
+    if (parser.atEnd()) {
+      finish(block.tree);
+    } else {
+      block.state = DECLS;
+      result = null;
+    }
+  }
+
+  /**
+   * block -> '{' d* s* '}' ==> block
+   */
+  private void block(Frame frame) throws SyntaxError {
+    switch (frame.state) {
+      case START:
+        parser.expect(Tokens.LeftBrace);
+        frame.tree = new BlockTree();
+        frame.state = DECLS;
+        break;
+      case DECLS:
+        if (result != null) {
+          frame.tree.addKid(result);
+          result = null;
+        }
+        if (parser.startingDecl()) {
+          push(DECL);
+          return;
+        }
+        frame.state = STATEMENTS;
+        break;
+      default:
+        if (result != null) {
+          frame.tree.addKid(result);
+          result = null;
+        }
+        if (parser.startingStatement()) {
+          push(STATEMENT);
+          return;
+        }
+        parser.expect(Tokens.RightBrace);
+        finish(frame.tree);
+    }
+  }
+
+  /**
+   * d -> type name ==> decl
+   * d -> type name funcHead block ==> functionDecl
+   */
+  private void decl(Frame frame) throws SyntaxError {
+    switch (frame.state) {
+      case START:
+        AST type = parser.rType();
+        AST name = parser.rName();
+
+        if (!parser.isNextTok(Tokens.LeftParen)) {
+          finish((new DeclTree()).addKid(type).addKid(name));
+          return;
+        }
+        frame.tree = (new FunctionDeclTree()).addKid(type).addKid(name);
+        frame.state = FUNCTION_HEAD;
+        push(FORMALS);
+        break;
+      case FUNCTION_HEAD:
+        frame.tree.addKid(result);
+        if (parser.isLazy()) {
+          parser.deferBody((FunctionDeclTree) frame.tree);
+          finish(frame.tree);
+          return;
+        }
+        frame.state = FUNCTION_BODY;
+        push(BLOCK);
+        break;
+      default:
+        frame.tree.addKid(result);
+        finish(frame.tree);
+    }
+  }
+
+  /**
+   * funcHead -> '(' (decl list ',')? ')' ==> formals
+   */
+  private void formals(Frame frame) throws SyntaxError {
+    if (frame.state == START) {
+      frame.tree = new FormalsTree();
+      parser.expect(Tokens.LeftParen);
+
+      if (!parser.isNextTok(Tokens.RightParen)) {
+        frame.state = LIST;
+        push(DECL);
+        return;
+      }
+    } else {
+      frame.tree.addKid(result);
+      if (parser.isNextTok(Tokens.Comma)) {
+        parser.scan();
+        push(DECL);
+        return;
+      }
+    }
+
+    parser.expect(Tokens.RightParen);
+    finish(frame.tree);
+  }
+
+  /**
+   * S -> 'if' e 'then' block 'else' block ==> if
+   * -> 'while' e block ==> while
+   * -> 'forall' decl 'in' range block ==> forall
+   * -> 'return' e ==> return
+   * -> block ==> block
+   * -> name '=' e ==> assign
+   */
+  private void statement(Frame frame) throws SyntaxError {
+    switch (frame.state) {
+      case START:
+        if (parser.isNextTok(Tokens.If)) {
+          parser.scan();
+          frame.tree = new IfTree();
+          frame.state = IF_THEN;
+          pushBinary(Parser.RELATIONAL);
+        } else if (parser.isNextTok(Tokens.While)) {
+          parser.scan();
+          frame.tree = new WhileTree();
+          frame.state = WHILE_BODY;
+          pushBinary(Parser.RELATIONAL);
+        } else if (parser.isNextTok(Tokens.Forall)) {
+          parser.scan();
+          frame.tree = new ForAllTree();
+          frame.state = FORALL_RANGE;
+          push(DECL);
+        } else if (parser.isNextTok(Tokens.Return)) {
+          parser.scan();
+          frame.tree = new ReturnTree();
+          frame.state = LAST_KID;
+          pushBinary(Parser.RELATIONAL);
+        } else if (parser.isNextTok(Tokens.LeftBrace)) {
+          // the block is the statement's tree
+          frame.rule = BLOCK;
+        } else {
+          frame.tree = (new AssignTree()).addKid(parser.rName());
+          parser.expect(Tokens.Assign);
+          frame.state = LAST_KID;
+          pushBinary(Parser.RELATIONAL);
+        }
+        break;
+      case IF_THEN:
+        frame.tree.addKid(result);
+        parser.expect(Tokens.Then);
+        frame.state = IF_ELSE;
+        push(BLOCK);
+        break;
+      case IF_ELSE:
+        frame.tree.addKid(result);
+        if (!parser.isNextTok(Tokens.Else)) {
+          finish(frame.tree);
+          return;
+        }
+        parser.expect(Tokens.Else);
+        frame.state = LAST_KID;
+        push(BLOCK);
+        break;
+      case WHILE_BODY:
+        frame.tree.addKid(result);
+        frame.state = LAST_KID;
+        push(BLOCK);
+        break;
+      case FORALL_RANGE:
+        frame.tree.addKid(result);
+        parser.expect(Tokens.In);
+        frame.tree.addKid(parser.rRangeExpression());
+        frame.state = LAST_KID;
+        push(BLOCK);
+        break;
+      default:
+        frame.tree.addKid(result);
+        finish(frame.tree);
+    }
+  }
+
+  /**
+   * the operators binding at least as tightly as frame.level, as in
+   * Parser.rBinary; frame.tree is the operand (or operator tree) built so
+   * far
+   */
+  private void binary(Frame frame) throws SyntaxError {
+    switch (frame.state) {
+      case START:
+        frame.state = OPERATOR;
+        push(FACTOR);
+        return;
+      case OPERATOR:
+        frame.tree = result;
+        break;
+      default:
+        frame.tree.addKid(result);
+        if (frame.operator == Parser.RELATIONAL) {
+          finish(frame.tree);
+          return;
+        }
+    }
+
+    int level = parser.precedence();
+    if (level < frame.level) {
+      finish(frame.tree);
+      return;
+    }
+
+    AST t = parser.getOperTree(level);
+    t.addKid(frame.tree);
+    frame.tree = t;
+    frame.operator = level;
+    frame.state = RIGHT_OPERAND;
+    pushBinary(level + 1);
+  }
+
+  /**
+   * f -> '(' e ')'
+   * -> name
+   * -> <int>
+   * -> name '(' (e list ',')? ')' ==> call
+   */
+  private void factor(Frame frame) throws SyntaxError {
+    switch (frame.state) {
+      case START:
+        if (parser.isNextTok(Tokens.LeftParen)) {
+          parser.scan();
+          frame.state = PARENTHESIZED;
+          pushBinary(Parser.RELATIONAL);
+          return;
+        }
+
+        AST t = parser.getLiteralTree();
+        if (t != null) {
+          finish(t);
+          return;
+        }
+
+        t = parser.rName();
+        if (!parser.isNextTok(Tokens.LeftParen)) {
+          finish(t);
+          return;
+        }
+
+        parser.scan();
+        frame.tree = (new CallTree()).addKid(t);
+        if (!parser.isNextTok(Tokens.RightParen)) {
+          frame.state = LIST;
+          pushBinary(Parser.RELATIONAL);
+          return;
+        }
+        break;
+      case LIST:
+        frame.tree.addKid(result);
+        if (parser.isNextTok(Tokens.Comma)) {
+          parser.scan();
+          pushBinary(Parser.RELATIONAL);
+          return;
+        }
+        break;
+      default:
+        frame.tree = result;
+    }
+
+    parser.expect(Tokens.RightParen);
+    finish(frame.tree);
+  }
+
+  /**
+   * a rule being parsed: the state to resume it in and the tree it is
+   * building
+   */
+  private static class Frame {
+    int rule;
+    int state = START;
+    AST tree;
+    // BINARY: the least binding power to parse, and the operator whose
+    // right operand is being parsed
+    int level, operator;
+
+    Frame(int rule) {
+      this.rule = rule;
+    }
+  }
+}
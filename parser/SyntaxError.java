@@ -0,0 +1,51 @@
+package parser;
+
+import lexer.*;
+
+/**
+ * The SyntaxError class records a token found by the parser where it
+ * expected a token of another kind
+ */
+class SyntaxError extends Exception {
+
+  private static final long serialVersionUID = 1L;
+  private Token tokenFound;
+  private Tokens kindExpected;
+
+  /**
+   * record the syntax error just encountered
+   *
+   * @param tokenFound   is the token just found by the parser
+   * @param kindExpected is the token we expected to find based on the current
+   *                     context
+   */
+  public SyntaxError(Token tokenFound, Tokens kindExpected) {
+    this.tokenFound = tokenFound;
+    this.kindExpected = kindExpected;
+  }
+
+  void print() {
+    System.out.println("Expected: " + kindExpected);
+    return;
+  }
+
+  Token getTokenFound() {
+    return tokenFound;
+  }
+
+  /**
+   * @return the error as it is listed by Parser.getErrors()
+   */
+  String describe() {
+    if (tokenFound == null) {
+      return "******** expected: " + kindExpected + " at end of file";
+    }
+    return "******** expected: " + kindExpected + ", found: " + tokenFound.getSymbol() + "< \n at line: "
+        + tokenFound.getLineNumber() + " Position: " + tokenFound.getLeftPosition();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Expected [%s], found [%s]", kindExpected, tokenFound);
+  }
+}
@@ -0,0 +1,52 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import lexer.CharClass;
+import lexer.CharScanner;
+
+public class CharScannerTest {
+    private static final String ALPHABET = "  \t\t\n\rabcXYZ_$09/\"+.\u00e9\u4e16\uffff";
+
+    @Test
+    public void testCharClassMatchesCharacter() {
+        for (char ch = 0; ch < Character.MAX_VALUE; ch++) {
+            assertEquals(Character.isWhitespace(ch), CharClass.isWhitespace(ch));
+            assertEquals(Character.isJavaIdentifierStart(ch), CharClass.isIdentifierStart(ch));
+            assertEquals(Character.isJavaIdentifierPart(ch), CharClass.isIdentifierPart(ch));
+            assertEquals(Character.isDigit(ch), CharClass.isDigit(ch));
+        }
+    }
+
+    @Test
+    public void testVectorMatchesScalar() {
+        // the vector scanner is compiled separately and may not be there
+        CharScanner vector = CharScanner.BEST;
+        assumeTrue(vector != CharScanner.SCALAR);
+        Random random = new Random(413);
+
+        for (int run = 0; run < 2000; run++) {
+            char[] buffer = new char[random.nextInt(200)];
+            // long runs of a single kind of character, so vectors fill up
+            for (int i = 0; i < buffer.length;) {
+                char ch = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                for (int n = random.nextInt(70); n > 0 && i < buffer.length; n--) {
+                    buffer[i++] = random.nextInt(4) == 0 ? ALPHABET.charAt(random.nextInt(ALPHABET.length())) : ch;
+                }
+            }
+
+            int from = buffer.length == 0 ? 0 : random.nextInt(buffer.length);
+            assertEquals(CharScanner.SCALAR.skipBlanks(buffer, from, buffer.length),
+                    vector.skipBlanks(buffer, from, buffer.length));
+            assertEquals(CharScanner.SCALAR.lineEnd(buffer, from, buffer.length),
+                    vector.lineEnd(buffer, from, buffer.length));
+            assertEquals(CharScanner.SCALAR.identifierEnd(buffer, from, buffer.length),
+                    vector.identifierEnd(buffer, from, buffer.length));
+        }
+    }
+}
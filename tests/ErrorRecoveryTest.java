@@ -0,0 +1,175 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import ast.AST;
+import ast.FlatAST;
+import lexer.Lexer;
+import lexer.Token;
+import lexer.TokenBuffer;
+import lexer.Tokens;
+import lexer.readers.SourceReader;
+import parser.Parser;
+import tests.helpers.Helpers;
+
+public class ErrorRecoveryTest {
+    private static final String PROGRAM = """
+            program { int i int j
+              i = 1 + # 2
+              j = ( 3 *
+              if i < then { j = 2 }
+              while j { i = i + }
+              j = 4
+            }
+            """;
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void testReportsEveryError(boolean explicitStack) throws Exception {
+        Parser parser = parser(PROGRAM, explicitStack);
+        AST t = parser.execute();
+        List<String> errors = parser.getErrors();
+
+        assertEquals(4, errors.size());
+        assertTrue(errors.get(0).startsWith("******** illegal character: #<"));
+        assertTrue(errors.get(1).endsWith("at line: 4 Position: 2"));
+        assertTrue(errors.get(2).endsWith("at line: 4 Position: 9"));
+        assertTrue(errors.get(3).endsWith("at line: 5 Position: 20"));
+
+        // the statement in error is dropped, as is the unfinished
+        // expression in the while body; the rest of the tree is kept
+        AST block = t.getKid(1);
+        assertEquals(6, block.kidCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "program { int i i = 1 if i then { i = 2 }",
+            "program { int i { { i = 1",
+            "program { int f(int a { return a } int i i = 2 }",
+            "program { ) ) int i i = = 1 while { } }",
+            "program { int i i = f(1, , 2) + (3 } i = 4 }" })
+    void testExplicitStackRecoversTheSame(String source) throws Exception {
+        Parser recursive = parser(source, false);
+        AST expected = recursive.execute();
+        Parser explicit = parser(source, true);
+        AST actual = explicit.execute();
+
+        assertEquals(recursive.getErrors(), explicit.getErrors());
+        ParserEquivalenceTest.assertSameTrees(expected, actual);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void testLazyBodiesRecover(boolean explicitStack) throws Exception {
+        String source = "program { int f() { x = } int g() { return 1 } int i i = 1 }";
+        Parser eager = parser(source, explicitStack);
+        AST expected = eager.execute();
+
+        ArrayList<Token> traced = new ArrayList<Token>();
+        Parser lazy = new Parser(TokenBuffer.lex(source.toCharArray()));
+        lazy.setTokenListener(traced::add);
+        lazy.setExplicitStack(explicitStack);
+        lazy.setLazyBodies(true);
+        lazy.setRecovery(true);
+        AST actual = lazy.execute();
+
+        // a body's error is found, and its tokens traced, once it is parsed
+        assertEquals(List.of(), lazy.getErrors());
+        ParserEquivalenceTest.assertSameTrees(expected, actual);
+        FlatAST.of(actual);
+        assertEquals(eager.getErrors(), lazy.getErrors());
+        // parsing the bodies again for the tree reports nothing twice
+        Helpers.preorder(actual);
+        assertEquals(eager.getErrors(), lazy.getErrors());
+        // every token but 'program', scanned before the listener was set
+        assertEquals(TokenBuffer.lex(source.toCharArray()).size() - 1, traced.size());
+    }
+
+    @Test
+    void testEndOfFileReportedOnce() throws Exception {
+        Parser parser = parser("program { int i { while i { i = 1", false);
+        parser.execute();
+
+        assertEquals(List.of("******** expected: RightBrace at end of file"), parser.getErrors());
+    }
+
+    @Test
+    void testStopsAtFirstErrorByDefault() throws Exception {
+        Parser parser = new Parser(ParserEquivalenceTest.lexer(PROGRAM));
+
+        assertThrows(Exception.class, parser::execute);
+    }
+
+    @Test
+    void testLexerSkipsIllegalCharacters() throws Exception {
+        List<String> errors = new ArrayList<String>();
+        Lexer lexer = ParserEquivalenceTest.lexer("program { int i # i = 1 ## 2 @\n i = 3 }");
+        lexer.collectErrors(errors);
+
+        LexerEquivalenceTest.assertSameTokens(
+                new Lexer(new SourceReader(new StringReader("program { int i   i = 1    2  \n i = 3 }"))), lexer);
+        assertEquals(4, errors.size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "1.5", "1.555e+3", "1.5e3", "1.5e+", "1.5 e+3" })
+    void testMalformedLiteralReportedOnce(String literal) throws Exception {
+        List<String> errors = new ArrayList<String>();
+        Lexer lexer = ParserEquivalenceTest.lexer("x = " + literal + " }");
+        lexer.collectErrors(errors);
+
+        lexer.nextToken();
+        lexer.nextToken();
+        Token token = lexer.nextToken();
+
+        assertEquals(1, errors.size());
+        assertEquals(Tokens.ScientificLit, token.getKind());
+        assertEquals(0, token.getDoubleValue());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "1.5", "1.555e+3", "1.5e3" })
+    void testMalformedLiteralStopsTheLexer(String literal) throws Exception {
+        Lexer lexer = ParserEquivalenceTest.lexer("x = " + literal + " }");
+
+        String output = LexerEquivalenceTest.output(() -> {
+            lexer.nextToken();
+            lexer.nextToken();
+            assertNull(lexer.nextToken());
+        });
+        assertEquals(1, output.lines().filter(line -> line.startsWith("********")).count());
+    }
+
+    @Test
+    void testMissingQuotationsCollected() throws Exception {
+        List<String> errors = new ArrayList<String>();
+        Lexer lexer = ParserEquivalenceTest.lexer("s = \"abc");
+        lexer.collectErrors(errors);
+
+        String output = LexerEquivalenceTest.output(() -> {
+            while (lexer.nextToken() != null) {
+            }
+        });
+        assertEquals("", output);
+        assertEquals(List.of("***** Missing Closing Quotations ***** \n at line: 1 Position: 4"), errors);
+    }
+
+    private static Parser parser(String source, boolean explicitStack) throws Exception {
+        Parser parser = new Parser(ParserEquivalenceTest.lexer(source));
+        parser.setExplicitStack(explicitStack);
+        parser.setRecovery(true);
+        return parser;
+    }
+}
@@ -0,0 +1,220 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import ast.AST;
+import ast.FlatAST;
+import ast.FunctionDeclTree;
+import ast.IdTree;
+import ast.IntTree;
+import ast.IntTypeTree;
+import lexer.Lexer;
+import lexer.TokenBuffer;
+import parser.Parser;
+import tests.helpers.Helpers;
+import visitor.DrawOffsetVisitor;
+import visitor.OffsetInfo;
+import visitor.OffsetVisitor;
+
+public class FlatASTTest {
+
+    @ParameterizedTest
+    @MethodSource("tests.LexerEquivalenceTest#provideSampleFiles")
+    void testSampleFiles(String sourceFile) throws Exception {
+        AST t = ParserEquivalenceTest.parse(new Parser(new Lexer(sourceFile)));
+        FlatAST flat = FlatAST.of(t);
+
+        assertEquals(Helpers.preorder(t).size(), flat.size());
+        ParserEquivalenceTest.assertSameTrees(t, flat.root());
+    }
+
+    @ParameterizedTest
+    @MethodSource("tests.ParserEquivalenceTest#providePrograms")
+    void testPrograms(String source) throws Exception {
+        AST t = ParserEquivalenceTest.parse(new Parser(ParserEquivalenceTest.lexer(source)));
+
+        if (t != null) {
+            ParserEquivalenceTest.assertSameTrees(t, FlatAST.of(t).root());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("tests.LexerEquivalenceTest#provideSampleFiles")
+    void testLazyBodies(String sourceFile) throws Exception {
+        Parser parser = new Parser(TokenBuffer.lex(sourceFile));
+        parser.setLazyBodies(true);
+        AST t = parser.execute();
+        FlatAST flat = FlatAST.of(t);
+
+        // the bodies are flattened but not kept by the lazy tree
+        for (AST decl : t.getKid(1).getKids()) {
+            if (decl instanceof FunctionDeclTree) {
+                assertTrue(((FunctionDeclTree) decl).isBodyPending());
+            }
+        }
+        ParserEquivalenceTest.assertSameTrees(
+                ParserEquivalenceTest.parse(new Parser(new Lexer(sourceFile))), flat.root());
+    }
+
+    @Test
+    void testArena() throws Exception {
+        AST t = new Parser(ParserEquivalenceTest.lexer("program { int i i = 7 + i }")).execute();
+        FlatAST flat = FlatAST.of(t);
+
+        // program block decl int i assign i + 7 i, in preorder
+        assertEquals(10, flat.size());
+        assertEquals(FlatAST.Kind.BLOCK, flat.kind(1));
+        assertEquals(2, flat.kidCount(1));
+        assertEquals(2, flat.firstKid(1));
+        assertEquals(5, flat.nextSibling(2));
+        assertEquals(-1, flat.nextSibling(5));
+        assertEquals(FlatAST.Kind.ADD_OP, flat.kind(7));
+        assertEquals("+", flat.symbol(7).toString());
+        assertEquals(FlatAST.Kind.INT, flat.kind(8));
+        assertEquals(7, flat.intValue(8));
+        assertSame(flat.symbol(4), flat.symbol(9));
+        assertNull(flat.symbol(1));
+    }
+
+    @Test
+    void testDecorations() throws Exception {
+        AST t = new Parser(ParserEquivalenceTest.lexer(
+                "program { int i int f(int a) { return a + i } i = f(i) }")).execute();
+        List<AST> nodes = Helpers.preorder(t);
+        IdentityHashMap<AST, Integer> numbers = new IdentityHashMap<>();
+        AST outside = new IntTypeTree();
+
+        // decorate each identifier with its first occurrence and the
+        // declarations with a type outside of the tree
+        HashMap<String, AST> firsts = new HashMap<>();
+        for (int n = 0; n < nodes.size(); n++) {
+            AST node = nodes.get(n);
+            numbers.put(node, n);
+            if (node instanceof IdTree) {
+                String name = ((IdTree) node).getSymbol().toString();
+                firsts.putIfAbsent(name, node);
+                node.setDecoration(firsts.get(name) == node ? outside : firsts.get(name));
+                ((IdTree) node).setFrameOffset(n);
+            }
+        }
+        t.getKid(1).setLabel("main");
+
+        FlatAST flat = FlatAST.of(t);
+        List<AST> views = Helpers.preorder(flat.root());
+        AST type = null;
+
+        assertEquals(nodes.size() + 1, flat.size());
+        for (int n = 0; n < nodes.size(); n++) {
+            AST node = nodes.get(n), view = views.get(n);
+
+            assertEquals(n + 1, view.getNodeNum());
+            assertEquals(node.getLabel(), view.getLabel());
+            if (node.getDecoration() == outside) {
+                type = type != null ? type : view.getDecoration();
+                assertSame(type, view.getDecoration());
+            } else if (node.getDecoration() != null) {
+                assertEquals(numbers.get(node.getDecoration()) + 1, view.getDecoration().getNodeNum());
+            }
+            if (node instanceof IdTree) {
+                assertEquals(n, ((IdTree) view).getFrameOffset());
+            }
+        }
+        assertEquals(IntTypeTree.class, type.getClass());
+        assertEquals(nodes.size() + 1, type.getNodeNum());
+        assertEquals("main", flat.label(1));
+    }
+
+    @Test
+    void testDeepNesting() throws Exception {
+        int depth = 100000;
+        StringBuilder source = new StringBuilder("program { int i ");
+        source.append("{ ".repeat(depth)).append("i = ").append("(".repeat(depth)).append('1')
+                .append(")".repeat(depth)).append(" }".repeat(depth)).append(" }");
+
+        FlatAST flat = FlatAST.of(ParserEquivalenceTest.explicitStack(
+                ParserEquivalenceTest.lexer(source.toString())));
+
+        int node = 0;
+        for (int i = 0; i <= depth; i++) {
+            node = flat.firstKid(node);
+            while (flat.nextSibling(node) >= 0) {
+                node = flat.nextSibling(node);
+            }
+        }
+        assertEquals(FlatAST.Kind.BLOCK, flat.kind(node));
+        assertEquals(FlatAST.Kind.INT, flat.kind(flat.nextSibling(flat.firstKid(flat.firstKid(node)))));
+        assertEquals(IntTree.class, flat.view(node).getKid(1).getKid(2).getClass());
+    }
+
+    @Test
+    void testViewsAreReadOnly() throws Exception {
+        AST view = FlatAST.of(new Parser(ParserEquivalenceTest.lexer("program { int i }")).execute()).root();
+
+        assertThrows(UnsupportedOperationException.class, () -> view.addKid(new IntTypeTree()));
+        assertThrows(UnsupportedOperationException.class, () -> view.getKids().clear());
+        assertEquals(1, view.getKids().toArray().length);
+        assertEquals(view.getKid(1).getNodeNum(), view.getKids().listIterator().next().getNodeNum());
+    }
+
+    @ParameterizedTest
+    @MethodSource("tests.LexerEquivalenceTest#provideSampleFiles")
+    void testOffsetVisitorsOnViews(String sourceFile) throws Exception {
+        AST t = ParserEquivalenceTest.parse(new Parser(new Lexer(sourceFile)));
+        AST root = FlatAST.of(t).root();
+        OffsetVisitor objects = new OffsetVisitor(), views = new OffsetVisitor();
+
+        // the visitors look nodes up by identity, so each node has one view
+        assertSame(root.getKid(1), root.getKid(1));
+        String output = LexerEquivalenceTest.output(() -> {
+            t.accept(objects);
+            root.accept(views);
+        });
+        assertEquals("", output);
+
+        List<AST> nodes = Helpers.preorder(t), viewNodes = Helpers.preorder(root);
+        for (int n = 0; n < nodes.size(); n++) {
+            OffsetInfo expected = objects.getOffsetMap().get(nodes.get(n));
+            OffsetInfo actual = views.getOffsetMap().get(viewNodes.get(n));
+
+            assertEquals(expected.getDepth(), actual.getDepth());
+            assertEquals(expected.getOffset(), actual.getOffset());
+        }
+
+        BufferedImage expected = draw(t, objects), actual = draw(root, views);
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    private static BufferedImage draw(AST t, OffsetVisitor offsets) {
+        DrawOffsetVisitor draw = new DrawOffsetVisitor(offsets);
+        t.accept(draw);
+        return draw.getImage();
+    }
+
+    @Test
+    void testViewsLeaveTheNodeCountAlone() throws Exception {
+        FlatAST flat = FlatAST.of(new Parser(ParserEquivalenceTest.lexer("program { int i i = 1 + i }")).execute());
+        int count = AST.getNodeCount();
+
+        assertEquals(flat.size(), Helpers.preorder(flat.root()).size());
+        assertEquals(count, AST.getNodeCount());
+    }
+}
@@ -0,0 +1,71 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import lexer.IncrementalLexer;
+import lexer.Lexer;
+import lexer.readers.SourceReader;
+
+public class IncrementalLexerTest {
+
+    @ParameterizedTest
+    @MethodSource("tests.LexerEquivalenceTest#provideSampleFiles")
+    void testInitialTokens(String sourceFile) throws Exception {
+        IncrementalLexer lexer = new IncrementalLexer(Files.readString(Path.of(sourceFile)));
+
+        LexerEquivalenceTest.assertSameTokens(new Lexer(sourceFile), lexer.lexer());
+    }
+
+    @Test
+    void testEditWithinLine() throws Exception {
+        IncrementalLexer lexer = new IncrementalLexer("program {\n  int i\n  i = 1\n  i = i + 2\n}");
+
+        assertEquals(1, lexer.edit(3, 6, 3, 7, "42 * (i - 3)"));
+        assertEquals("  i = 42 * (i - 3)", lexer.getLine(3));
+        assertSameAsFullLex(lexer);
+    }
+
+    @Test
+    void testEditAcrossLines() throws Exception {
+        IncrementalLexer lexer = new IncrementalLexer("program {\n  int i\n  i = 1\n  i = i + 2\n}");
+
+        // join lines 2 to 4 and then split them up again
+        assertEquals(1, lexer.edit(2, 7, 4, 2, " "));
+        assertEquals("  int i i = i + 2", lexer.getLine(2));
+        assertSameAsFullLex(lexer);
+
+        assertEquals(3, lexer.edit(2, 7, 2, 8, "\n  boolean b\r\n  "));
+        assertEquals(5, lexer.getLineCount());
+        assertSameAsFullLex(lexer);
+    }
+
+    @Test
+    void testErrors() throws Exception {
+        IncrementalLexer lexer = new IncrementalLexer("program {\n  int i\n  i = 1\n}");
+
+        lexer.edit(2, 2, 2, 2, "#");
+        // the error keeps its position but not its line, which may move
+        assertEquals("******** illegal character: #< Position: 2", lexer.getError(2));
+        assertNull(lexer.getError(3));
+        assertEquals(1, lexer.getTokens(3).get(0).getLineNumber() - 2);
+        assertSameAsFullLex(lexer);
+
+        lexer.edit(2, 2, 2, 3, "");
+        assertNull(lexer.getError(2));
+        assertSameAsFullLex(lexer);
+    }
+
+    private static void assertSameAsFullLex(IncrementalLexer lexer) throws Exception {
+        LexerEquivalenceTest.assertSameTokens(
+                new Lexer(new SourceReader(new StringReader(lexer.getText()))), lexer.lexer());
+    }
+}
@@ -0,0 +1,313 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import lexer.BufferLexer;
+import lexer.DfaLexer;
+import lexer.IncrementalLexer;
+import lexer.Lexer;
+import lexer.ParallelLexer;
+import lexer.PipelinedLexer;
+import lexer.SymbolTable;
+import lexer.Token;
+import lexer.TokenBuffer;
+import lexer.TokenCursor;
+import lexer.TokenType;
+import lexer.Tokens;
+import lexer.Utf8Lexer;
+import lexer.readers.SourceReader;
+import parser.Parser;
+
+public class LexerEquivalenceTest {
+
+    @ParameterizedTest
+    @MethodSource("provideSampleFiles")
+    void testBufferLexer(String sourceFile) throws Exception {
+        assertSameTokens(new Lexer(sourceFile), new BufferLexer(sourceFile));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideSampleFiles")
+    void testDfaLexer(String sourceFile) throws Exception {
+        assertSameTokens(new Lexer(sourceFile), new DfaLexer(sourceFile));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideSampleFiles")
+    void testTokenBuffer(String sourceFile) throws Exception {
+        assertSameTokens(new Lexer(sourceFile), TokenBuffer.lex(sourceFile).lexer());
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideSampleFiles")
+    void testParallelLexer(String sourceFile) throws Exception {
+        // tiny chunks so that even the samples are split across many tasks
+        TokenBuffer tokens = ParallelLexer.lex(
+                BufferLexer.readSource(sourceFile), new SymbolTable(), ForkJoinPool.commonPool(), 16);
+
+        assertSameTokens(new Lexer(sourceFile), tokens.lexer());
+    }
+
+    @Test
+    void testParallelLexerLinesAndSymbols() throws Exception {
+        // errors in two late chunks: only the first is reported, at its line
+        StringBuilder program = new StringBuilder("program {\n");
+        for (int i = 0; i < 50; i++) {
+            program.append("  int i").append(i % 7).append(i % 2 == 0 ? "\r\n" : "\n");
+        }
+        program.append("  i0 = # i1\n  int i9\n  i1 = @\n}\n");
+        String source = program.toString();
+        char[] chars = source.toCharArray();
+
+        String lexerError = output(() -> {
+            try {
+                Lexer lexer = lexer(source);
+                while (lexer.nextToken() != null) {
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        TokenBuffer[] sequential = new TokenBuffer[1], parallel = new TokenBuffer[1];
+        String expected = output(() -> sequential[0] = TokenBuffer.lex(chars));
+        String actual = output(() -> parallel[0] = ParallelLexer.lex(chars, new SymbolTable(), ForkJoinPool.commonPool(), 16));
+
+        assertTrue(lexerError.contains("at line: 52 "));
+        assertTrue(actual.contains("at line: 52 "));
+        assertEquals(expected, actual);
+
+        // the symbols are numbered as sequential lexing numbers them
+        assertEquals(sequential[0].size(), parallel[0].size());
+        for (int i = 0; i < sequential[0].size(); i++) {
+            assertEquals(sequential[0].symbol(i).getId(), parallel[0].symbol(i).getId());
+            assertEquals(sequential[0].line(i), parallel[0].line(i));
+        }
+    }
+
+    static String output(Runnable action) {
+        PrintStream standardOut = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+
+        System.setOut(new PrintStream(captured));
+        try {
+            action.run();
+        } finally {
+            System.setOut(standardOut);
+        }
+        return captured.toString();
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideSampleFiles")
+    void testUtf8Lexer(String sourceFile) throws Exception {
+        assertSameTokens(new Lexer(sourceFile), new Utf8Lexer(sourceFile));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideSampleFiles")
+    void testPipelinedLexer(String sourceFile) throws Exception {
+        // tiny batches and ring so that the ring wraps many times
+        assertSameTokens(new Lexer(sourceFile), new PipelinedLexer(new Lexer(sourceFile), 3, 2));
+    }
+
+    @Test
+    void testPipelinedLexerStopsWithItsConsumer() throws Exception {
+        Token comma = new Token(0, 0, TokenType.tokens.get(Tokens.Comma), 1);
+        PipelinedLexer lexer = new PipelinedLexer(() -> comma, 3, 2);
+
+        // the parse fails on the first token of an endless program
+        try (lexer) {
+            assertThrows(Exception.class, () -> new Parser(lexer).execute());
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (!lexer.isDone()) {
+                Thread.sleep(1);
+            }
+        });
+    }
+
+    @Test
+    void testPipelinedLexerPublishesPartialBatches() throws Exception {
+        Token comma = new Token(0, 0, TokenType.tokens.get(Tokens.Comma), 1);
+        CountDownLatch taken = new CountDownLatch(1);
+        AtomicInteger lexed = new AtomicInteger();
+
+        // the second token is only lexed once the first has been taken
+        try (PipelinedLexer lexer = new PipelinedLexer(() -> {
+            if (lexed.getAndIncrement() == 1) {
+                try {
+                    taken.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return lexed.get() <= 2 ? comma : null;
+        })) {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertEquals(comma, lexer.nextToken()));
+            taken.countDown();
+            assertEquals(comma, lexer.nextToken());
+            assertNull(lexer.nextToken());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideSampleFiles")
+    void testCursor(String sourceFile) throws Exception {
+        char[] source = BufferLexer.readSource(sourceFile);
+
+        assertSameTokens(new DfaLexer(source), new DfaLexer(source), new DfaLexer(source));
+        assertSameTokens(new DfaLexer(source), TokenBuffer.lex(source).cursor(), new DfaLexer(source));
+    }
+
+    /**
+     * compare a cursor with the tokens of a lexer; the cursor's text must be
+     * the source text of the tokens that text comes from
+     */
+    static void assertSameTokens(ILexer expected, TokenCursor actual, BufferLexer textSource) {
+        Token expectedToken;
+
+        while ((expectedToken = expected.nextToken()) != null) {
+            assertTrue(actual.advance());
+            assertTrue(textSource.advance());
+
+            assertEquals(expectedToken.getKind(), actual.kind());
+            assertEquals(expectedToken.getSymbol().toString(), actual.symbol().toString());
+            assertEquals(expectedToken.getLeftPosition(), actual.start());
+            assertEquals(expectedToken.getRightPosition(), actual.end());
+            assertEquals(expectedToken.getLineNumber(), actual.line());
+            if (expectedToken.getKind() == Tokens.INTeger) {
+                assertEquals(expectedToken.getLongValue(), actual.longValue());
+            }
+            assertEquals(textSource.text().toString(), actual.text().toString());
+        }
+
+        assertFalse(actual.advance());
+    }
+
+    @Test
+    void testUtf8LexerStrings() throws Exception {
+        // positions after a string count its chars, not its bytes
+        String source = "program {\r\n  string s\r\n"
+                + "  s = \"h\u00e9llo \u4e16\u754c \ud83d\ude00\" s = \"\u00e9\" // \u00e9\n  int i\n}";
+
+        assertSameTokens(
+                new Lexer(new SourceReader(new StringReader(source))),
+                new Utf8Lexer(source.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "1.5e+3", "1.25E-3", "12.5e+3", "12.5", "125" })
+    void testScientificLiterals(String literal) throws Exception {
+        // Lexer allows a single digit before the '.'; a longer number ends there
+        String source = "program { scientific x\n  x = " + literal + "\n}";
+        char[] chars = source.toCharArray();
+
+        assertSameTokens(lexer(source), new BufferLexer(chars));
+        assertSameTokens(lexer(source), new DfaLexer(chars));
+        assertSameTokens(lexer(source), TokenBuffer.lex(chars).lexer());
+        assertSameTokens(lexer(source), new Utf8Lexer(source.getBytes(StandardCharsets.UTF_8)));
+        assertSameTokens(lexer(source), new IncrementalLexer(source).lexer());
+    }
+
+    @Test
+    void testUnterminatedString() throws Exception {
+        // the DFA fails in the string's state, which is the missing closing quote
+        String source = "program { string s\n  s = \"abc";
+        char[] chars = source.toCharArray();
+
+        String expected = output(() -> drain(new BufferLexer(chars)));
+
+        assertTrue(expected.startsWith("***** Missing Closing Quotations ***** \n at line: 2 "));
+        assertEquals(expected, output(() -> drain(new DfaLexer(chars))));
+        assertEquals(expected, output(() -> drain(TokenBuffer.lex(chars).lexer())));
+        assertEquals(expected, output(() -> drain(new Utf8Lexer(source.getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    @Test
+    void testStringPastEndOfLine() throws Exception {
+        // Lexer ends the string on the next line and carries on; the
+        // buffer lexers stop at it
+        String source = "program { string s\n  s = \"abc\n  x = 1\n}";
+        char[] chars = source.toCharArray();
+        List<Token> expected = drain(lexer(source));
+
+        assertEquals("abc ", expected.get(6).getSymbol().toString());
+        assertEquals(Tokens.StringLit, expected.get(6).getKind());
+        assertEquals(Tokens.RightBrace, expected.get(expected.size() - 1).getKind());
+
+        List<Supplier<ILexer>> lexers = List.of(
+                () -> new BufferLexer(chars),
+                () -> new DfaLexer(chars),
+                () -> TokenBuffer.lex(chars).lexer(),
+                () -> new Utf8Lexer(source.getBytes(StandardCharsets.UTF_8)));
+        for (Supplier<ILexer> lexer : lexers) {
+            List<Token> actual = new ArrayList<Token>();
+            String error = output(() -> actual.addAll(drain(lexer.get())));
+
+            assertEquals("***** Missing Closing Quotations ***** \n at line: 2 Position: 6", error.trim());
+            assertEquals(6, actual.size());
+            for (int i = 0; i < actual.size(); i++) {
+                assertEquals(expected.get(i).print(), actual.get(i).print());
+            }
+        }
+    }
+
+    private static List<Token> drain(ILexer lexer) {
+        List<Token> tokens = new ArrayList<Token>();
+        Token token;
+
+        while ((token = lexer.nextToken()) != null) {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static Lexer lexer(String source) throws Exception {
+        return new Lexer(new SourceReader(new StringReader(source)));
+    }
+
+    static void assertSameTokens(ILexer expected, ILexer actual) {
+        Token expectedToken;
+
+        while ((expectedToken = expected.nextToken()) != null) {
+            Token actualToken = actual.nextToken();
+
+            assertEquals(expectedToken.print(), actualToken.print());
+        }
+
+        assertNull(actual.nextToken());
+    }
+
+    static Stream<String> provideSampleFiles() {
+        return Stream.of(
+                "sample_files/simple.x",
+                "sample_files/codegen.x",
+                "sample_files/factorial.x",
+                "sample_files/factorialErr.x",
+                "sample_files/fib.x",
+                "sample_files/scopes.x");
+    }
+}
@@ -0,0 +1,132 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import lexer.readers.ChannelReader;
+import lexer.readers.IReader;
+import lexer.readers.MappedSourceReader;
+import lexer.readers.SourceReader;
+
+public class MappedSourceReaderTest {
+
+    @ParameterizedTest
+    @MethodSource("provideSources")
+    void testMatchesSourceReader(String source) throws Exception {
+        Path temp = Files.createTempFile("mapped", ".x");
+        Files.write(temp, source.getBytes(StandardCharsets.UTF_8));
+
+        IReader expected = new SourceReader(new BufferedReader(new StringReader(source)));
+        IReader actual = new MappedSourceReader(temp.toString());
+
+        assertSameReads(expected, actual);
+        actual.close();
+        Files.delete(temp);
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideSources")
+    void testChannelReaderMatchesSourceReader(String source) throws Exception {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+
+        // a tiny buffer splits lines and multi-byte characters across reads
+        assertSameReads(
+                new SourceReader(new StringReader(source)),
+                new ChannelReader(Channels.newChannel(new ByteArrayInputStream(bytes)), 4));
+        assertSameReads(
+                new SourceReader(new StringReader(source)),
+                new ChannelReader(new ByteArrayInputStream(bytes)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideSources")
+    void testSkipToEndOfLine(String source) throws Exception {
+        Path temp = Files.createTempFile("mapped", ".x");
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        Files.write(temp, bytes);
+
+        assertSameSkips(source, new SourceReader(new StringReader(source)));
+        assertSameSkips(source, new MappedSourceReader(temp.toString()));
+        assertSameSkips(source, new ChannelReader(Channels.newChannel(new ByteArrayInputStream(bytes)), 4));
+        Files.delete(temp);
+    }
+
+    /**
+     * read the first two characters of each line and skip the rest with
+     * skipToEndOfLine(), comparing against reading up to the next line
+     */
+    static void assertSameSkips(String source, IReader actual) throws Exception {
+        IReader expected = new SourceReader(new StringReader(source));
+
+        while (true) {
+            char expectedCh;
+            try {
+                expected.read();
+                expected.read();
+                int line = expected.getLineno();
+                do {
+                    expectedCh = expected.read();
+                } while (line == expected.getLineno());
+            } catch (IOException e) {
+                assertThrows(IOException.class, () -> {
+                    actual.read();
+                    actual.read();
+                    actual.skipToEndOfLine();
+                    actual.read();
+                });
+                assertEquals(expected.getLineno(), actual.getLineno());
+                break;
+            }
+
+            actual.read();
+            actual.read();
+            actual.skipToEndOfLine();
+            assertEquals(expectedCh, actual.read());
+            assertEquals(expected.getLineno(), actual.getLineno());
+            assertEquals(expected.getPosition(), actual.getPosition());
+        }
+        actual.close();
+    }
+
+    static void assertSameReads(IReader expected, IReader actual) throws Exception {
+        while (true) {
+            char expectedCh;
+            try {
+                expectedCh = expected.read();
+            } catch (IOException e) {
+                assertThrows(IOException.class, actual::read);
+                assertEquals(expected.getLineno(), actual.getLineno());
+                break;
+            }
+
+            assertEquals(expectedCh, actual.read());
+            assertEquals(expected.getLineno(), actual.getLineno());
+            assertEquals(expected.getPosition(), actual.getPosition());
+        }
+    }
+
+    private static Stream<String> provideSources() throws Exception {
+        return Stream.of(
+                "",
+                "program { int i }",
+                "program {\n  int i\n\n  i = 1\n}\n",
+                "program {\r\n  string s\r\n  s = \"h\u00e9llo \u4e16\u754c \ud83d\ude00\"\r\n}",
+                new String(Files.readAllBytes(Path.of("sample_files", "factorial.x")), StandardCharsets.UTF_8),
+                // more than ChannelReader's text buffer holds, and a line
+                // longer than it
+                "program {\n" + "  i = i + 1\r\n".repeat(2000) + "  s = \"" + "\u00e9".repeat(20000) + "\"\n}\n");
+    }
+}
@@ -0,0 +1,91 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import ast.IntTree;
+import ast.ScientificTree;
+import lexer.BufferLexer;
+import lexer.DfaLexer;
+import lexer.Lexer;
+import lexer.Token;
+import lexer.TokenBuffer;
+import lexer.Tokens;
+import lexer.Utf8Lexer;
+import lexer.readers.SourceReader;
+
+public class NumericLiteralTest {
+
+    @ParameterizedTest
+    @MethodSource("provideLexers")
+    void testValues(String name) throws Exception {
+        ILexer lexer = lexer(name, "x = 2147483647 + 042 * 1.25e+3 - 3.5E-2");
+
+        assertEquals(Tokens.Identifier, lexer.nextToken().getKind());
+        lexer.nextToken();
+        assertEquals(2147483647L, lexer.nextToken().getLongValue());
+        lexer.nextToken();
+        assertEquals(42L, lexer.nextToken().getLongValue());
+        lexer.nextToken();
+        assertEquals(1250.0, lexer.nextToken().getDoubleValue());
+        lexer.nextToken();
+        assertEquals(0.035, lexer.nextToken().getDoubleValue());
+        assertNull(lexer.nextToken());
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideLexers")
+    void testIntOutOfRange(String name) throws Exception {
+        ILexer lexer = lexer(name, "x = 2147483648 + 1");
+
+        lexer.nextToken();
+        lexer.nextToken();
+        assertNull(lexer.nextToken());
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideLexers")
+    void testScientificOutOfRange(String name) throws Exception {
+        ILexer lexer = lexer(name, "x = 1.5e+400 y = 1.5e-400");
+
+        lexer.nextToken();
+        lexer.nextToken();
+        assertNull(lexer.nextToken());
+    }
+
+    @Test
+    void testTreeValues() throws Exception {
+        Token i = lexer("Lexer", "7").nextToken();
+        Token s = lexer("Lexer", "6.02e+23").nextToken();
+
+        assertEquals(7L, new IntTree(i).getValue());
+        assertEquals(6.02e23, new ScientificTree(s).getValue());
+    }
+
+    private static ILexer lexer(String name, String source) throws Exception {
+        switch (name) {
+            case "Lexer":
+                return new Lexer(new SourceReader(new StringReader(source)));
+            case "BufferLexer":
+                return new BufferLexer(source.toCharArray());
+            case "DfaLexer":
+                return new DfaLexer(source.toCharArray());
+            case "TokenBuffer":
+                return TokenBuffer.lex(source.toCharArray()).lexer();
+            default:
+                return new Utf8Lexer(source.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    static Stream<String> provideLexers() {
+        return Stream.of("Lexer", "BufferLexer", "DfaLexer", "TokenBuffer", "Utf8Lexer");
+    }
+}
@@ -0,0 +1,251 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import ast.AST;
+import ast.BlockTree;
+import ast.FormalsTree;
+import ast.FunctionDeclTree;
+import ast.IntTree;
+import lexer.Lexer;
+import lexer.TokenBuffer;
+import lexer.readers.SourceReader;
+import parser.ParallelParser;
+import parser.Parser;
+import tests.helpers.Helpers;
+import tests.helpers.TestVisitor;
+
+public class ParserEquivalenceTest {
+
+    @ParameterizedTest
+    @MethodSource("tests.LexerEquivalenceTest#provideSampleFiles")
+    void testPrecedenceParsingSampleFiles(String sourceFile) throws Exception {
+        assertSameTrees(cascade(new Lexer(sourceFile)), parse(new Parser(new Lexer(sourceFile))));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideExpressions")
+    void testPrecedenceParsing(String expression) throws Exception {
+        String source = "program { int i i = " + expression + " }";
+
+        assertSameTrees(cascade(lexer(source)), parse(new Parser(lexer(source))));
+    }
+
+    @ParameterizedTest
+    @MethodSource("tests.LexerEquivalenceTest#provideSampleFiles")
+    void testExplicitStackSampleFiles(String sourceFile) throws Exception {
+        assertSameTrees(parse(new Parser(new Lexer(sourceFile))), explicitStack(new Lexer(sourceFile)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("providePrograms")
+    void testExplicitStack(String source) throws Exception {
+        assertSameTrees(parse(new Parser(lexer(source))), explicitStack(lexer(source)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideExpressions")
+    void testExplicitStackExpressions(String expression) throws Exception {
+        String source = "program { int i i = " + expression + " }";
+
+        assertSameTrees(parse(new Parser(lexer(source))), explicitStack(lexer(source)));
+    }
+
+    @Test
+    void testExplicitStackDeepNesting() throws Exception {
+        // far deeper than recursive descent manages on a default stack
+        int depth = 100000;
+        StringBuilder source = new StringBuilder("program { int i ");
+        source.append("{ ".repeat(depth)).append("i = ").append("(".repeat(depth)).append('1')
+                .append(")".repeat(depth)).append(" }".repeat(depth)).append(" }");
+
+        AST t = explicitStack(lexer(source.toString()));
+        for (int i = 0; i <= depth; i++) {
+            t = t.getKid(t.kidCount());
+        }
+        assertEquals(BlockTree.class, t.getClass());
+        assertEquals(IntTree.class, t.getKid(1).getKid(2).getClass());
+    }
+
+    @ParameterizedTest
+    @MethodSource("tests.LexerEquivalenceTest#provideSampleFiles")
+    void testParallelParserSampleFiles(String sourceFile) throws Exception {
+        assertSameTrees(parse(new Parser(new Lexer(sourceFile))), parallel(TokenBuffer.lex(sourceFile)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("providePrograms")
+    void testParallelParser(String source) throws Exception {
+        assertSameTrees(parse(new Parser(lexer(source))), parallel(TokenBuffer.lex(source.toCharArray())));
+    }
+
+    @Test
+    void testParallelParserManyFunctions() throws Exception {
+        StringBuilder source = new StringBuilder("program { int i\n");
+        for (int f = 0; f < 200; f++) {
+            source.append("  int f").append(f).append("(int a, boolean b) {\n")
+                    .append("    while a < ").append(f).append(" { if b then { a = a + f(a) } else { { } } }\n")
+                    .append("    return a * (").append(f).append(" - i)\n  }\n");
+        }
+        source.append("  i = f1(f2(3))\n}\n");
+
+        TokenBuffer tokens = TokenBuffer.lex(source.toString().toCharArray());
+        AST expected = parse(new Parser(tokens.lexer())), actual = parallel(tokens);
+        assertSameTrees(expected, actual);
+
+        // the nodes are numbered in the order Parser numbers them
+        List<AST> expectedNodes = Helpers.preorder(expected), actualNodes = Helpers.preorder(actual);
+        int first = actual.getNodeNum() - expected.getNodeNum();
+        for (int n = 0; n < expectedNodes.size(); n++) {
+            assertEquals(expectedNodes.get(n).getNodeNum() + first, actualNodes.get(n).getNodeNum());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("tests.LexerEquivalenceTest#provideSampleFiles")
+    void testLazyBodiesSampleFiles(String sourceFile) throws Exception {
+        assertSameTrees(parse(new Parser(new Lexer(sourceFile))), lazy(TokenBuffer.lex(sourceFile), false));
+        assertSameTrees(parse(new Parser(new Lexer(sourceFile))), lazy(TokenBuffer.lex(sourceFile), true));
+    }
+
+    @ParameterizedTest
+    @MethodSource("providePrograms")
+    void testLazyBodies(String source) throws Exception {
+        assertSameTrees(parse(new Parser(lexer(source))), lazy(TokenBuffer.lex(source.toCharArray()), false));
+        assertSameTrees(parse(new Parser(lexer(source))), lazy(TokenBuffer.lex(source.toCharArray()), true));
+    }
+
+    @Test
+    void testLazyBodiesParsedOnDemand() throws Exception {
+        Parser parser = new Parser(TokenBuffer.lex("program { int f(int a) { return a } int g() { x = } }".toCharArray()));
+        parser.setLazyBodies(true);
+        AST block = parser.execute().getKid(1);
+        FunctionDeclTree f = (FunctionDeclTree) block.getKid(1), g = (FunctionDeclTree) block.getKid(2);
+
+        // the headers are there and the bodies, one in error, are not parsed
+        assertEquals(4, g.kidCount());
+        assertEquals(FormalsTree.class, g.getKid(3).getClass());
+        assertTrue(f.isBodyPending() && g.isBodyPending());
+
+        assertEquals(BlockTree.class, f.getKid(4).getClass());
+        assertFalse(f.isBodyPending());
+        assertThrows(IllegalStateException.class, () -> g.getKid(4));
+    }
+
+    /**
+     * @return the tree built by a parser with lazy bodies, once they are
+     *         all parsed, or null for a syntax error
+     */
+    static AST lazy(TokenBuffer tokens, boolean explicitStack) throws Exception {
+        Parser parser = new Parser(tokens);
+        parser.setLazyBodies(true);
+        parser.setExplicitStack(explicitStack);
+        try {
+            AST t = parser.execute();
+            Helpers.preorder(t);
+            return t;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * assert both parses failed, or that they built the same tree
+     */
+    static void assertSameTrees(AST expected, AST actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+
+        assertEquals(Helpers.preorder(expected).size(), Helpers.preorder(actual).size());
+        assertNull(actual.accept(new TestVisitor(Helpers.preorder(expected))));
+    }
+
+    static AST explicitStack(ILexer lexer) throws Exception {
+        Parser parser = new Parser(lexer);
+        parser.setExplicitStack(true);
+        return parse(parser);
+    }
+
+    /**
+     * @return the tree built by ParallelParser, or null for a syntax error
+     */
+    static AST parallel(TokenBuffer tokens) {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            return ParallelParser.parse(tokens, pool);
+        } catch (Exception e) {
+            return null;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static AST cascade(ILexer lexer) throws Exception {
+        Parser parser = new Parser(lexer);
+        parser.setPrecedenceParsing(false);
+        return parse(parser);
+    }
+
+    /**
+     * @return the tree built by the parser, or null for a syntax error
+     */
+    static AST parse(Parser parser) {
+        try {
+            return parser.execute();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    static Lexer lexer(String source) throws Exception {
+        return new Lexer(new SourceReader(new StringReader(source)));
+    }
+
+    static Stream<String> providePrograms() {
+        return Stream.of(
+                "program { }",
+                "program { int f() { } int g() { return f() } g() }",
+                "program { int f() { return 1 } int i i = 2 int g() { return 3 } }",
+                "program { int f() { return 1 } int g() { return ) } }",
+                "program { int f() { { return 1 } int g() { } }",
+                "program { int i boolean b string s scientific x }",
+                "program { int f() { return 1 } int g(int a, boolean b) { { } return a } }",
+                "program { int f(int g(int x) { return x }) { return 2 } }",
+                "program { int i if i < 1 then { i = 2 } if i then { } else { { i = 3 } } }",
+                "program { int i while i { i = i - 1 } forall int j in [1 .. 3] { i = j } }",
+                "program { int i i = f(g(h()), (1)) return i }",
+                "program { int i if i then { i = 2 } else }",
+                "program { int f( { } }",
+                "program { int i i = 1");
+    }
+
+    static Stream<String> provideExpressions() {
+        return Stream.of(
+                "1",
+                "a + b * c - d / e",
+                "a - b - c * d * e",
+                "(a + b) * (c - d) & e | f",
+                "a + b < c * d + e",
+                "a == b",
+                "a < b < c",
+                "f(a + b, g(c) * 2, (d)) != 3 - x",
+                "\"s\" + 1.5e3 * 2",
+                "a + * b",
+                "(a + b");
+    }
+}
@@ -0,0 +1,41 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import lexer.readers.SourceReader;
+
+public class SourceReaderTest {
+    private static final String SOURCE = "program {\r\n  int i\n\n  i = 1\r}";
+
+    @Test
+    void testGetLine() throws Exception {
+        SourceReader reader = new SourceReader(new StringReader(SOURCE));
+
+        // lines are available before (and after) reading reaches them
+        assertEquals("  i = 1", reader.getLine(4));
+        assertEquals('p', reader.read());
+        assertEquals("program {", reader.getLine(1));
+        assertEquals("  int i", reader.getLine(2));
+        assertEquals("", reader.getLine(3));
+        assertEquals("}", reader.getLine(5));
+        assertNull(reader.getLine(6));
+        assertNull(reader.getLine(0));
+    }
+
+    @Test
+    void testSourceFile() throws Exception {
+        SourceReader reader = new SourceReader(new StringReader(SOURCE));
+
+        while (reader.read() != '{') {
+        }
+
+        assertEquals(
+                "\n     1: program {\n     2:   int i\n     3: \n     4:   i = 1\n     5: }",
+                reader.getSourceFile());
+    }
+}
@@ -0,0 +1,96 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import lexer.Lexer;
+import lexer.TokenCache;
+
+public class TokenCacheTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    @ParameterizedTest
+    @MethodSource("tests.LexerEquivalenceTest#provideSampleFiles")
+    void testReplay(String sourceFile) throws Exception {
+        TokenCache cache = new TokenCache(cacheDirectory);
+
+        // the first lookup lexes, the second replays the entry
+        assertNotNull(cache.tokens(sourceFile).getSource());
+        LexerEquivalenceTest.assertSameTokens(new Lexer(sourceFile), cache.lexer(sourceFile));
+    }
+
+    @Test
+    void testReplayValues() throws Exception {
+        Path source = cacheDirectory.resolve("values.x");
+        Files.writeString(source, "program { x = 12 + 1.25e+2 }");
+        TokenCache cache = new TokenCache(cacheDirectory);
+
+        cache.tokens(source.toString());
+        assertNull(cache.tokens(source.toString()).getSource());
+        assertEquals(12L, cache.tokens(source.toString()).longValue(4));
+        assertEquals(125.0, cache.tokens(source.toString()).doubleValue(6));
+    }
+
+    @Test
+    void testChangedSource() throws Exception {
+        Path source = cacheDirectory.resolve("changed.x");
+        TokenCache cache = new TokenCache(cacheDirectory);
+
+        Files.writeString(source, "program { int i }");
+        cache.tokens(source.toString());
+        Files.writeString(source, "program { int j }");
+
+        assertNotNull(cache.tokens(source.toString()).getSource());
+        assertEquals("j", cache.tokens(source.toString()).symbol(3).toString());
+    }
+
+    static Stream<byte[]> provideDamagedEntries() {
+        return Stream.of(
+                // a truncated symbol count
+                new byte[] { 0x54, 0x4F, 0x4B, 0x31, (byte) 0xFF },
+                // no symbols and a huge token count
+                new byte[] { 0x54, 0x4F, 0x4B, 0x31, 0x00, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 },
+                // a symbol of a kind past the last one
+                new byte[] { 0x54, 0x4F, 0x4B, 0x31, 0x01, (byte) 0x80, 0x01, 0x78, 0x00 });
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideDamagedEntries")
+    void testDamagedEntry(byte[] damaged) throws Exception {
+        Path source = cacheDirectory.resolve("damaged.x");
+        Files.writeString(source, "program { int i }");
+        TokenCache cache = new TokenCache(cacheDirectory);
+        cache.tokens(source.toString());
+
+        try (Stream<Path> entries = Files.list(cacheDirectory)) {
+            for (Path entry : (Iterable<Path>) entries.filter(p -> p.toString().endsWith(".tok"))::iterator) {
+                Files.write(entry, damaged);
+            }
+        }
+
+        assertNotNull(cache.tokens(source.toString()).getSource());
+        assertNull(cache.tokens(source.toString()).getSource());
+    }
+
+    @Test
+    void testErrorsNotCached() throws Exception {
+        Path source = cacheDirectory.resolve("error.x");
+        Files.writeString(source, "program { int i # }");
+        TokenCache cache = new TokenCache(cacheDirectory);
+
+        cache.tokens(source.toString());
+        assertNotNull(cache.tokens(source.toString()).getSource());
+    }
+}
@@ -0,0 +1,76 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import lexer.Lexer;
+import lexer.Token;
+import lexer.TokenTracer;
+import lexer.readers.SourceReader;
+import parser.Parser;
+
+public class TokenTracerTest {
+
+    @ParameterizedTest
+    @MethodSource("tests.LexerEquivalenceTest#provideSampleFiles")
+    void testLexerTrace(String sourceFile) throws Exception {
+        StringWriter trace = new StringWriter();
+        Lexer traced = new Lexer(sourceFile);
+        traced.setTokenListener(new TokenTracer(trace));
+        while (traced.nextToken() != null) {
+        }
+
+        // each token the lexer hands out is traced once, in order
+        StringWriter expected = new StringWriter();
+        TokenTracer tracer = new TokenTracer(expected);
+        Lexer lexer = new Lexer(sourceFile);
+        Token token;
+        while ((token = lexer.nextToken()) != null) {
+            tracer.token(token);
+        }
+        tracer.flush();
+
+        assertEquals(expected.toString(), trace.toString());
+    }
+
+    @Test
+    void testCommentsAreNotTraced() throws Exception {
+        StringWriter trace = new StringWriter();
+        Lexer lexer = new Lexer(new SourceReader(new StringReader("program { // empty\n}")));
+        lexer.setTokenListener(new TokenTracer(trace));
+        while (lexer.nextToken() != null) {
+        }
+
+        // the comment is skipped before the listener is told of a token
+        assertArrayEquals(new String[] {
+                "program  left: 0        right: 6        line: 1        Program  ",
+                "{        left: 8        right: 8        line: 1        LeftBrace ",
+                "}        left: 0        right: 0        line: 2        RightBrace " },
+                trace.toString().split("\\R"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("tests.LexerEquivalenceTest#provideSampleFiles")
+    void testParserListener(String sourceFile) throws Exception {
+        List<Token> scanned = new ArrayList<Token>();
+        try {
+            new Parser(new Lexer(sourceFile), scanned::add).execute();
+        } catch (Exception e) {
+            // the error samples stop the parse early
+        }
+
+        Lexer lexer = new Lexer(sourceFile);
+        for (Token token : scanned) {
+            assertEquals(lexer.nextToken().print(), token.print());
+        }
+    }
+}
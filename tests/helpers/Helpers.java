@@ -1,6 +1,8 @@
 package tests.helpers;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.StringTokenizer;
 
 import ast.*;
@@ -84,6 +86,22 @@ public class Helpers {
         return treeMappings.get(token);
     }
 
+    /**
+     * @return the nodes of the tree t in preorder, as TestVisitor expects them
+     */
+    public static List<AST> preorder(AST t) {
+        List<AST> nodes = new ArrayList<>();
+        addPreorder(t, nodes);
+        return nodes;
+    }
+
+    private static void addPreorder(AST t, List<AST> nodes) {
+        nodes.add(t);
+        for (AST kid : t.getKids()) {
+            addPreorder(kid, nodes);
+        }
+    }
+
     public static ILexer lexerFromPseudoProgram(String program) throws Exception {
         StringTokenizer tokenizer = new StringTokenizer(program);
 
@@ -0,0 +1,67 @@
+package lexer;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The VectorCharScanner class classifies a whole vector of characters
+ * (8 to 32 depending on the hardware) with each comparison, using the
+ * incubating Vector API<br>
+ * It lives in a source tree of its own, vector/, so the rest of the
+ * compiler builds without the incubating module; compile it with
+ * --add-modules jdk.incubator.vector onto the same classpath and
+ * CharScanner loads it when the module is present at run time
+ */
+public class VectorCharScanner implements CharScanner {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    public int skipBlanks(char[] buffer, int from, int to) {
+        for (; from + LANES <= to; from += LANES) {
+            ShortVector chars = ShortVector.fromCharArray(SPECIES, buffer, from);
+            VectorMask<Short> blank = chars.eq((short) ' ').or(chars.eq((short) '\t'));
+
+            if (!blank.allTrue()) {
+                return from + blank.not().firstTrue();
+            }
+        }
+
+        return SCALAR.skipBlanks(buffer, from, to);
+    }
+
+    public int lineEnd(char[] buffer, int from, int to) {
+        for (; from + LANES <= to; from += LANES) {
+            ShortVector chars = ShortVector.fromCharArray(SPECIES, buffer, from);
+            VectorMask<Short> newline = chars.eq((short) '\n').or(chars.eq((short) '\r'));
+
+            if (newline.anyTrue()) {
+                return from + newline.firstTrue();
+            }
+        }
+
+        return SCALAR.lineEnd(buffer, from, to);
+    }
+
+    public int identifierEnd(char[] buffer, int from, int to) {
+        for (; from + LANES <= to; from += LANES) {
+            ShortVector chars = ShortVector.fromCharArray(SPECIES, buffer, from);
+            // setting bit 0x20 folds 'A'-'Z' onto 'a'-'z'; no other
+            // character lands in that range
+            ShortVector folded = chars.or((short) 0x20);
+            VectorMask<Short> part = folded.compare(VectorOperators.GE, (short) 'a')
+                    .and(folded.compare(VectorOperators.LE, (short) 'z'))
+                    .or(chars.compare(VectorOperators.GE, (short) '0')
+                            .and(chars.compare(VectorOperators.LE, (short) '9')))
+                    .or(chars.eq((short) '_'))
+                    .or(chars.eq((short) '$'));
+
+            if (!part.allTrue()) {
+                return from + part.not().firstTrue();
+            }
+        }
+
+        return SCALAR.identifierEnd(buffer, from, to);
+    }
+}